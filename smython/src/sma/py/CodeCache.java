@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py;
+
+import sma.py.ast.PyExpr;
+import sma.py.ast.PyOptimizer;
+import sma.py.ast.PySuite;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches parsed and optimized source code so that evaluating the same source again doesn't parse
+ * it again, see {@link PyOptimizer}. The cache holds at most {@link #getCapacity()} sources and
+ * evicts the least recently used one if it grows beyond that. Sources which don't parse aren't
+ * cached.
+ * <p>
+ * Parsed nodes are shared by all interpreters and threads which evaluate the same source. They
+ * aren't immutable: operations specialize themselves on the operands they see, and attribute
+ * references and identifiers keep inline caches. This state is written without locking but can't
+ * cause wrong results. Cache entries are immutable and validated against the class or the
+ * dictionaries and version stamps they were taken from, and a specialized node checks the types
+ * of its operands before it takes a shortcut. Sharing a node only means that it may fall back to
+ * the generic operation because another interpreter or thread saw other operands.
+ * <p>
+ * Use the system property {@code sma.py.cache.size} to change the capacity of the {@link #SHARED}
+ * cache; 0 disables it.
+ */
+public final class CodeCache {
+  public static final CodeCache SHARED = new CodeCache(Integer.getInteger("sma.py.cache.size", 256));
+
+  private final int capacity;
+  private final Map<Key, Object> map;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a new cache for the given number of sources.
+   */
+  public CodeCache(final int capacity) {
+    this.capacity = capacity;
+    this.map = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the statements of the given source, see {@link Parser#interactiveInput()}.
+   */
+  public PySuite suite(String source) {
+    Key key = new Key(source, false);
+    PySuite suite = (PySuite) get(key);
+    if (suite == null) {
+      suite = new PyOptimizer().optimize(new Parser(source).interactiveInput());
+      put(key, suite);
+    }
+    return suite;
+  }
+
+  /**
+   * Returns the expression of the given source, see {@link Parser#expr()}.
+   */
+  public PyExpr expr(String source) {
+    Key key = new Key(source, true);
+    PyExpr expr = (PyExpr) get(key);
+    if (expr == null) {
+      expr = new PyOptimizer().optimize(new Parser(source).expr());
+      put(key, expr);
+    }
+    return expr;
+  }
+
+  private synchronized Object get(Key key) {
+    Object value = map.get(key);
+    if (value != null) {
+      hits++;
+    } else {
+      misses++;
+    }
+    return value;
+  }
+
+  // sources are parsed outside of the lock; if two threads parse the same source, the last one wins
+  private synchronized void put(Key key, Object value) {
+    if (capacity > 0) {
+      map.put(key, value);
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * Returns the number of lookups which found a parsed source.
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of lookups which had to parse the source.
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Removes all sources and resets the counters.
+   */
+  public synchronized void clear() {
+    map.clear();
+    hits = 0;
+    misses = 0;
+  }
+
+  private static final class Key {
+    private final String source;
+    private final boolean expr; // parsed with expr() instead of interactiveInput()
+
+    Key(String source, boolean expr) {
+      this.source = source;
+      this.expr = expr;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return expr == other.expr && source.equals(other.source);
+    }
+
+    @Override
+    public int hashCode() {
+      return source.hashCode() * 2 + (expr ? 1 : 0);
+    }
+  }
+}
@@ -1,28 +1,60 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the binary arithmetic add (+) operation, see 5.6.
- */
-public class PyAddExpr extends PyBinaryExpr {
-
-  public PyAddExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "+";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).add(right.eval(frame));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyInt;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+
+/**
+ * Represents the binary arithmetic add (+) operation, see §5.6.
+ */
+public class PyAddExpr extends PyBinaryExpr {
+
+  public PyAddExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "+";
+  }
+
+  @Override
+  protected int specialize(PyObject l, PyObject r) {
+    if (l instanceof PyInt && r instanceof PyInt) {
+      return INT;
+    }
+    if (l instanceof PyString && r instanceof PyString) {
+      return STRING;
+    }
+    return isFloat(l, r) ? FLOAT : GENERIC;
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.add(r);
+  }
+
+  @Override
+  protected PyObject apply(int l, int r) {
+    return PyInt.plus(l, r);
+  }
+
+  @Override
+  protected PyObject apply(PyString l, PyString r) {
+    return l.concat(r);
+  }
+
+  @Override
+  protected PyObject apply(double l, double r) {
+    return PyObject.make(l + r);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "add");
+  }
+
+}
@@ -1,28 +1,66 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the logical and operation, see 5.10.
- */
-public class PyAndExpr extends PyBinaryExpr {
-
-  public PyAndExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "and";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    PyObject obj = left.eval(frame);
-    return obj.truth() ? right.eval(frame) : obj;
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the logical and operation, see §5.10.
+ */
+public class PyAndExpr extends PyBinaryExpr {
+
+  public PyAndExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "and";
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    PyObject obj = left.eval(frame);
+    return obj.truth() ? right.eval(frame) : obj;
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.truth() ? r : l;
+  }
+
+  @Override
+  public boolean evalTruth(PyFrame frame) {
+    return left.evalTruth(frame) && right.evalTruth(frame);
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    left = left.optimize(o);
+    right = right.optimize(o);
+    if (PyOptimizer.isLiteral(left)) {
+      return left.eval(null).truth() ? right : left;
+    }
+    return this;
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    String result = c.temp(left.compile(c));
+    c.begin("if (" + result + ".truth())");
+    c.emit(result + " = " + right.compile(c) + ";");
+    c.end();
+    return result;
+  }
+
+  @Override
+  String compileTruth(PyCompiler c) {
+    String result = c.temp("boolean", left.compileTruth(c));
+    c.begin("if (" + result + ")");
+    c.emit(result + " = " + right.compileTruth(c) + ";");
+    c.end();
+    return result;
+  }
+}
@@ -1,46 +1,67 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-import sma.py.rt.PyString;
-
-/**
- * Represents the attribute reference, see 5.3.1.
- */
-public class PyAttrRef extends PyExpr {
-  private final PyExpr primary;
-  private final PyString name;
-
-  public PyAttrRef(PyExpr primary, PyString name) {
-    this.primary = primary;
-    this.name = name;
-  }
-
-  @Override
-  public String toString() {
-    return primary + "." + name.value();
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return primary.eval(frame).getAttr(name);
-  }
-
-  @Override
-  public boolean isTarget() {
-    return true;
-  }
-
-  @Override
-  public void assign(PyFrame frame, PyObject value) {
-    primary.eval(frame).setAttr(name, value);
-  }
-
-  @Override
-  public void del(PyFrame frame) {
-    primary.eval(frame).delAttr(name);
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyAttrCache;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+
+/**
+ * Represents the attribute reference, see §5.3.1.
+ * Lookups in classes are cached, see {@link PyAttrCache}.
+ */
+public class PyAttrRef extends PyExpr {
+  private final PyExpr primary;
+  private final PyString name;
+  private final PyAttrCache cache = new PyAttrCache();
+
+  public PyAttrRef(PyExpr primary, PyString name) {
+    this.primary = primary;
+    this.name = name;
+  }
+
+  public PyExpr getPrimary() {
+    return primary;
+  }
+
+  public PyString getName() {
+    return name;
+  }
+
+  @Override
+  public String toString() {
+    return primary + "." + name.value();
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    return primary.eval(frame).getAttr(name, cache);
+  }
+
+  @Override
+  public boolean isTarget() {
+    return true;
+  }
+
+  @Override
+  public void assign(PyFrame frame, PyObject value) {
+    primary.eval(frame).setAttr(name, value);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return c.temp(primary.compile(c) + ".getAttr(" + c.constant(name) + ", " + c.constant(cache) + ")");
+  }
+
+  @Override
+  void compileAssign(PyCompiler c, String value) {
+    c.emit(primary.compile(c) + ".setAttr(" + c.constant(name) + ", " + value + ");");
+  }
+
+  @Override
+  public void del(PyFrame frame) {
+    primary.eval(frame).delAttr(name);
+  }
+}
@@ -1,25 +1,149 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-/**
- * Abstract base class for binary operations.
- */
-public abstract class PyBinaryExpr extends PyExpr {
-  protected final PyExpr left;
-  protected final PyExpr right;
-
-  public PyBinaryExpr(PyExpr left, PyExpr right) {
-    this.left = left;
-    this.right = right;
-  }
-
-  @Override
-  public String toString() {
-    return left + " " + op() + " " + right;
-  }
-
-  protected abstract String op();
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFloat;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyInt;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+
+/**
+ * Abstract base class for binary operations.
+ * <p>
+ * A binary operation specializes itself on the types of the first operands it sees. As long as
+ * later operands have the same types, the operation is applied directly, without double dispatch.
+ * Once operands of other types are seen, the node falls back to the generic operation for good.
+ * Because nodes may be shared by threads, see {@link sma.py.CodeCache}, each evaluation reads the
+ * state once and every specialized path checks the operand types again.
+ */
+public abstract class PyBinaryExpr extends PyExpr {
+  protected static final int UNINITIALIZED = 0;
+  protected static final int INT = 1;
+  protected static final int STRING = 2;
+  protected static final int FLOAT = 3;
+  protected static final int GENERIC = 4;
+
+  protected PyExpr left;
+  protected PyExpr right;
+  private int state = UNINITIALIZED;
+
+  public PyBinaryExpr(PyExpr left, PyExpr right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public String toString() {
+    return left + " " + op() + " " + right;
+  }
+
+  protected abstract String op();
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    PyObject l = left.eval(frame);
+    PyObject r = right.eval(frame);
+    int state = this.state;
+    if (state == UNINITIALIZED) {
+      this.state = state = specialize(l, r);
+    }
+    if (state == INT) {
+      if (l instanceof PyInt && r instanceof PyInt) {
+        return apply(((PyInt) l).value(), ((PyInt) r).value());
+      }
+      this.state = GENERIC;
+    } else if (state == STRING) {
+      if (l instanceof PyString && r instanceof PyString) {
+        return apply((PyString) l, (PyString) r);
+      }
+      this.state = GENERIC;
+    } else if (state == FLOAT) {
+      if (l instanceof PyFloat) {
+        if (r instanceof PyFloat) {
+          return apply(((PyFloat) l).value(), ((PyFloat) r).value());
+        }
+        if (r instanceof PyInt) {
+          return apply(((PyFloat) l).value(), ((PyInt) r).value());
+        }
+      } else if (l instanceof PyInt && r instanceof PyFloat) {
+        return apply(((PyInt) l).value(), ((PyFloat) r).value());
+      }
+      this.state = GENERIC;
+    }
+    return apply(l, r);
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    left = left.optimize(o);
+    right = right.optimize(o);
+    if (!PyOptimizer.isLiteral(left) || !PyOptimizer.isLiteral(right)) {
+      return this;
+    }
+    return isTooLarge(left.eval(null), right.eval(null)) ? this : o.fold(this);
+  }
+
+  /**
+   * Returns whether the result of the operation applied to the given literals would be too large
+   * to be folded, see {@link PyOptimizer#isTooLarge(double)}. This is checked before the operation
+   * is applied so that folding doesn't compute huge values only to throw them away.
+   */
+  boolean isTooLarge(PyObject l, PyObject r) {
+    return false;
+  }
+
+  /**
+   * Returns the specialization for the given operands; {@link #INT}, {@link #STRING} or
+   * {@link #FLOAT} if the subclass implements the matching <code>apply</code> method,
+   * {@link #GENERIC} otherwise.
+   */
+  protected int specialize(PyObject l, PyObject r) {
+    return GENERIC;
+  }
+
+  /**
+   * Returns whether the operands are a float and a float or int, see {@link #FLOAT}.
+   */
+  protected static boolean isFloat(PyObject l, PyObject r) {
+    return l instanceof PyFloat ? r instanceof PyFloat || r instanceof PyInt : l instanceof PyInt && r instanceof PyFloat;
+  }
+
+  /**
+   * Applies the operation to the given operands of any type.
+   */
+  protected abstract PyObject apply(PyObject l, PyObject r);
+
+  /**
+   * Applies the operation to two integers; called in the {@link #INT} state.
+   */
+  protected PyObject apply(int l, int r) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Applies the operation to two strings; called in the {@link #STRING} state.
+   */
+  protected PyObject apply(PyString l, PyString r) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Applies the operation to two floats, one of which may have been an int; called in the
+   * {@link #FLOAT} state.
+   */
+  protected PyObject apply(double l, double r) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Emits Java code which evaluates both operands and applies the given {@code PyObject} method.
+   */
+  String compile(PyCompiler c, String method) {
+    String l = left.compile(c);
+    String r = right.compile(c);
+    return c.temp(l + "." + method + "(" + r + ")");
+  }
+
+}
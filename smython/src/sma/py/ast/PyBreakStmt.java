@@ -1,23 +1,33 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>break</code> statement, see 6.9.
- */
-public class PyBreakStmt extends PyStmt {
-
-  @Override
-  public String toString() {
-    return "break";
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    throw new Py.BreakSignal();
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>break</code> statement, see §6.9.
+ */
+public class PyBreakStmt extends PyStmt {
+
+  @Override
+  public String toString() {
+    return "break";
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    return BREAK;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    int label = c.currentLoop();
+    if (label == -1) {
+      c.delegate(this);
+    } else {
+      c.jump("break b" + label + ";");
+    }
+  }
+}
@@ -1,63 +1,132 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyDict;
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-import sma.py.rt.PyTuple;
-
-/**
- * Represents a call, see 5.3.4,
- */
-public class PyCall extends PyExpr {
-  private final PyExpr primary; // must evaluate to a callable
-  private final PyExprList args; // will evaluate to a tuple
-  private final PyExprList kwargs; // will evaluate to a dict
-  private PyExpr restArgs; // must evaluate to a sequence
-  private PyExpr restKwargs; // must evaluate to a dict
-
-  public PyCall(PyExpr primary) {
-    this.primary = primary;
-    this.args = new PyExprList();
-    this.kwargs = new PyExprList();
-  }
-
-  public void addArg(PyExpr expr) {
-    args.add(expr);
-  }
-
-  public void addKwarg(PyExpr expr) {
-    kwargs.add(expr);
-  }
-
-  public void setRestArgs(PyExpr expr) {
-    restArgs = expr;
-  }
-
-  public void setRestKwargs(PyExpr expr) {
-    restKwargs = expr;
-  }
-
-  @Override
-  public String toString() {
-    return primary + "(" + args + "/" + kwargs + ")";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    if (restArgs != null || restKwargs != null) {
-      //TODO support rest parameters
-      throw new UnsupportedOperationException();
-    }
-
-    PyObject callable = primary.eval(frame);
-
-    //TODO this is kind-of inefficient
-    PyTuple positionalArguments = args.evalAsTuple(frame);
-    PyDict keywordArguments = kwargs.evalAsDictionary(frame);
-    return callable.apply(frame, positionalArguments, keywordArguments);
-  }
-
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyDict;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyTuple;
+
+/**
+ * Represents a call, see §5.3.4,
+ */
+public class PyCall extends PyExpr {
+  private final PyExpr primary; // must evaluate to a callable
+  protected final PyExprList args; // will evaluate to a tuple
+  private final PyExprList kwargs; // will evaluate to a dict
+  private PyExpr restArgs; // must evaluate to a sequence
+  private PyExpr restKwargs; // must evaluate to a dict
+
+  public PyCall(PyExpr primary) {
+    this.primary = primary;
+    this.args = new PyExprList();
+    this.kwargs = new PyExprList();
+  }
+
+  public PyExpr getPrimary() {
+    return primary;
+  }
+
+  public void addArg(PyExpr expr) {
+    args.add(expr);
+  }
+
+  public void addKwarg(PyExpr expr) {
+    kwargs.add(expr);
+  }
+
+  public void setRestArgs(PyExpr expr) {
+    restArgs = expr;
+  }
+
+  public void setRestKwargs(PyExpr expr) {
+    restKwargs = expr;
+  }
+
+  @Override
+  public String toString() {
+    return primary + "(" + args + "/" + kwargs + ")";
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    if (restArgs != null || restKwargs != null) {
+      //TODO support rest parameters
+      throw new UnsupportedOperationException();
+    }
+
+    PyObject callable = primary.eval(frame);
+
+    if (kwargs.size() == 0) {
+      return invoke(frame, callable);
+    }
+
+    PyTuple positionalArguments = args.evalAsTuple(frame);
+    PyDict keywordArguments = kwargs.evalAsDictionary(frame);
+    return callable.apply(frame, positionalArguments, keywordArguments);
+  }
+
+  /**
+   * Returns whether the call has only positional arguments.
+   */
+  protected boolean isPositional() {
+    return kwargs.size() == 0 && restArgs == null && restKwargs == null;
+  }
+
+  /**
+   * Calls the given object with the positional arguments.
+   */
+  protected PyObject invoke(PyFrame frame, PyObject callable) {
+    switch (args.size()) {
+    case 0:
+      return callable.invoke(frame);
+    case 1:
+      return callable.invoke(frame, args.get(0).eval(frame));
+    case 2:
+      return callable.invoke(frame, args.get(0).eval(frame), args.get(1).eval(frame));
+    case 3:
+      return callable.invoke(frame, args.get(0).eval(frame), args.get(1).eval(frame), args.get(2).eval(frame));
+    default:
+      return callable.invoke(frame, args.evalAsArray(frame));
+    }
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    args.optimize(o);
+    kwargs.optimize(o);
+    return this;
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    if (restArgs != null || restKwargs != null) {
+      return c.delegate(this);
+    }
+    String callable = primary.compile(c);
+    if (kwargs.size() == 0) {
+      return c.temp(callable + ".invoke(frame" + compileArguments(c) + ")");
+    }
+    String positionalArguments = args.compileAsTuple(c);
+    String keywordArguments = kwargs.compileAsDictionary(c);
+    return c.temp(callable + ".apply(frame, " + positionalArguments + ", " + keywordArguments + ")");
+  }
+
+  /**
+   * Emits the positional arguments and returns them as a Java argument list suffix for one of
+   * the {@code invoke} methods, that is, either individual arguments or an array.
+   */
+  String compileArguments(PyCompiler c) {
+    int size = args.size();
+    if (size > 3) {
+      return ", " + args.compileAsArray(c);
+    }
+    StringBuilder b = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      b.append(", ").append(args.get(i).compile(c));
+    }
+    return b.toString();
+  }
+
 }
\ No newline at end of file
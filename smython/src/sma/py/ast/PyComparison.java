@@ -1,97 +1,233 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Represents a sequence of comparisons, see 5.9.
- */
-public class PyComparison extends PyExpr {
-  private final PyExpr expr;
-  private final List<Comp> comps = new ArrayList<Comp>();
-
-  public PyComparison(PyExpr expr) {
-    this.expr = expr;
-  }
-
-  public void add(Op op, PyExpr expr) {
-    comps.add(new Comp(op, expr));
-  }
-
-  @Override
-  public String toString() {
-    return expr + list(comps, "");
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    PyObject left = expr.eval(frame);
-    for (Comp c : comps) {
-      PyObject right = c.expr.eval(frame);
-      if (!comp(c.op, left, right)) {
-        return PyObject.False;
-      }
-      left = right;
-    }
-    return PyObject.True;
-  }
-
-  private boolean comp(Op op, PyObject left, PyObject right) {
-    switch (op) {
-    case LT: return left.compareTo(right) < 0;
-    case GT: return left.compareTo(right) > 0;
-    case LE: return left.compareTo(right) <= 0;
-    case GE: return left.compareTo(right) >= 0;
-    case EQ: return left.compareTo(right) == 0;
-    case NE: return left.compareTo(right) != 0;
-    case IS: return left == right;
-    case IS_NOT: return left != right;
-    case IN: return right.hasItem(left);
-    case NOT_IN: return !right.hasItem(left);
-    default:
-      throw new Error(); // cannot happen
-    }
-  }
-
-  private static class Comp {
-    final Op op;
-    final PyExpr expr;
-
-    Comp(Op op, PyExpr expr) {
-      this.op = op;
-      this.expr = expr;
-    }
-
-    @Override
-    public String toString() {
-      return " " + op() + " " + expr;
-    }
-
-    private String op() {
-      switch (op) {
-      case LT: return "<";
-      case GT: return ">";
-      case LE: return "<=";
-      case GE: return ">=";
-      case EQ: return "==";
-      case NE: return "!=";
-      case IN: return "in";
-      case NOT_IN: return "not in";
-      case IS: return "is";
-      case IS_NOT: return "is not";
-      default: throw new Error();
-      }
-    }
-  }
-
-  public static enum Op {
-    LT, GT, LE, GE, EQ, NE, IN, NOT_IN, IS, IS_NOT
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyInt;
+import sma.py.rt.PyObject;
+import sma.py.rt.PySet;
+import sma.py.rt.PyString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a sequence of comparisons, see §5.9.
+ * <p>
+ * Like binary operations, each comparison specializes itself on the types of the first operands
+ * it sees and compares integers and strings directly until it sees other operands. Membership
+ * tests against a set call its hash lookup directly.
+ */
+public class PyComparison extends PyExpr {
+  private static final int UNINITIALIZED = 0;
+  private static final int INT = 1;
+  private static final int STRING = 2;
+  private static final int SET = 3;
+  private static final int GENERIC = 4;
+
+  private PyExpr expr;
+  private final List<Comp> comps = new ArrayList<Comp>();
+
+  public PyComparison(PyExpr expr) {
+    this.expr = expr;
+  }
+
+  public void add(Op op, PyExpr expr) {
+    comps.add(new Comp(op, expr));
+  }
+
+  @Override
+  public String toString() {
+    return expr + list(comps, "");
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    return evalTruth(frame) ? PyObject.True : PyObject.False;
+  }
+
+  @Override
+  public boolean evalTruth(PyFrame frame) {
+    PyObject left = expr.eval(frame);
+    for (Comp c : comps) {
+      PyObject right = c.expr.eval(frame);
+      if (!comp(c, left, right)) {
+        return false;
+      }
+      left = right;
+    }
+    return true;
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    expr = expr.optimize(o);
+    boolean literal = PyOptimizer.isLiteral(expr);
+    for (Comp c : comps) {
+      c.expr = c.expr.optimize(o);
+      literal &= PyOptimizer.isLiteral(c.expr);
+    }
+    return literal ? o.fold(this) : this;
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return c.temp("(" + compileTruth(c) + " ? PyObject.True : PyObject.False)");
+  }
+
+  @Override
+  String compileTruth(PyCompiler c) {
+    String left = expr.compile(c);
+    if (comps.size() == 1) {
+      return compile(comps.get(0).op, left, comps.get(0).expr.compile(c));
+    }
+    String result = c.temp("boolean", "false");
+    for (Comp comp : comps) {
+      String right = comp.expr.compile(c);
+      c.begin("if (" + compile(comp.op, left, right) + ")");
+      left = right;
+    }
+    c.emit(result + " = true;");
+    for (int i = 0; i < comps.size(); i++) {
+      c.end();
+    }
+    return result;
+  }
+
+  private static boolean comp(Comp c, PyObject left, PyObject right) {
+    int state = c.state;
+    if (state == UNINITIALIZED) {
+      c.state = state = specialize(c.op, left, right);
+    }
+    if (state == INT) {
+      if (left instanceof PyInt && right instanceof PyInt) {
+        return comp(c.op, ((PyInt) left).value(), ((PyInt) right).value());
+      }
+      c.state = GENERIC;
+    } else if (state == STRING) {
+      if (left instanceof PyString && right instanceof PyString) {
+        return comp(c.op, ((PyString) left).value(), ((PyString) right).value());
+      }
+      c.state = GENERIC;
+    } else if (state == SET) {
+      if (right instanceof PySet) {
+        return ((PySet) right).contains(left) == (c.op == Op.IN);
+      }
+      c.state = GENERIC;
+    }
+    return comp(c.op, left, right);
+  }
+
+  private static int specialize(Op op, PyObject left, PyObject right) {
+    if (op == Op.IN || op == Op.NOT_IN) {
+      return right instanceof PySet ? SET : GENERIC;
+    }
+    if (op == Op.IS || op == Op.IS_NOT) {
+      return GENERIC;
+    }
+    if (left instanceof PyInt && right instanceof PyInt) {
+      return INT;
+    }
+    if (left instanceof PyString && right instanceof PyString) {
+      return STRING;
+    }
+    return GENERIC;
+  }
+
+  private static boolean comp(Op op, int left, int right) {
+    switch (op) {
+    case LT: return left < right;
+    case GT: return left > right;
+    case LE: return left <= right;
+    case GE: return left >= right;
+    case EQ: return left == right;
+    case NE: return left != right;
+    default:
+      throw new Error(); // cannot happen
+    }
+  }
+
+  private static boolean comp(Op op, String left, String right) {
+    switch (op) {
+    case EQ: return left.equals(right);
+    case NE: return !left.equals(right);
+    default:
+      return comp(op, left.compareTo(right), 0);
+    }
+  }
+
+  private static boolean comp(Op op, PyObject left, PyObject right) {
+    switch (op) {
+    case LT: return left.lt(right);
+    case GT: return left.gt(right);
+    case LE: return left.le(right);
+    case GE: return left.ge(right);
+    case EQ: return left.eq(right);
+    case NE: return !left.eq(right);
+    case IS: return left == right;
+    case IS_NOT: return left != right;
+    case IN: return right.hasItem(left);
+    case NOT_IN: return !right.hasItem(left);
+    default:
+      throw new Error(); // cannot happen
+    }
+  }
+
+  /**
+   * Returns the Java expression which compares the given Java variables like {@link #comp}.
+   */
+  private static String compile(Op op, String left, String right) {
+    switch (op) {
+    case LT: return left + ".lt(" + right + ")";
+    case GT: return left + ".gt(" + right + ")";
+    case LE: return left + ".le(" + right + ")";
+    case GE: return left + ".ge(" + right + ")";
+    case EQ: return left + ".eq(" + right + ")";
+    case NE: return "!" + left + ".eq(" + right + ")";
+    case IS: return left + " == " + right;
+    case IS_NOT: return left + " != " + right;
+    case IN: return right + ".hasItem(" + left + ")";
+    case NOT_IN: return "!" + right + ".hasItem(" + left + ")";
+    default:
+      throw new Error(); // cannot happen
+    }
+  }
+
+  private static class Comp {
+    final Op op;
+    PyExpr expr;
+    int state = UNINITIALIZED;
+
+    Comp(Op op, PyExpr expr) {
+      this.op = op;
+      this.expr = expr;
+    }
+
+    @Override
+    public String toString() {
+      return " " + op() + " " + expr;
+    }
+
+    private String op() {
+      switch (op) {
+      case LT: return "<";
+      case GT: return ">";
+      case LE: return "<=";
+      case GE: return ">=";
+      case EQ: return "==";
+      case NE: return "!=";
+      case IN: return "in";
+      case NOT_IN: return "not in";
+      case IS: return "is";
+      case IS_NOT: return "is not";
+      default: throw new Error();
+      }
+    }
+  }
+
+  public static enum Op {
+    LT, GT, LE, GE, EQ, NE, IN, NOT_IN, IS, IS_NOT
+  }
+
+}
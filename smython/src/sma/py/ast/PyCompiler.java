@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyAttrCache;
+import sma.py.rt.PyCompiledCode;
+import sma.py.rt.PyGlobalCell;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+import sma.py.rt.PyUserFunction;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Compiles the body of a function into a JVM class. Each node knows how to translate itself into
+ * Java source code; nodes which don't know are called by the compiled code instead, so compiled and
+ * interpreted code can be mixed freely. The source code is compiled with the system Java compiler
+ * and loaded by a private class loader. If there is no system Java compiler, nothing is compiled.
+ * <p>
+ * Functions are compiled in the background once they have been called {@link #THRESHOLD} times.
+ * Use the system property {@code sma.py.compile.threshold} to change that number; 0 disables the
+ * compiler. Set {@code sma.py.compile.debug} to print the generated source code if it doesn't compile.
+ */
+public class PyCompiler {
+  public static final int THRESHOLD = Integer.getInteger("sma.py.compile.threshold", 1000);
+
+  private static final boolean DEBUG = Boolean.getBoolean("sma.py.compile.debug");
+
+  private static final Executor executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, "PyCompiler");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private static JavaCompiler javac;
+  private static StandardJavaFileManager fileManager;
+  private static List<String> options;
+  private static int classes;
+
+  /**
+   * Compiles the given function in the background and replaces its body with the compiled code.
+   */
+  public static void compileLater(final PyUserFunction function) {
+    executor.execute(new Runnable() {
+      public void run() {
+        PyCompiledCode code = compile(function.getName(), function.getSuite());
+        if (code != null) {
+          function.setCode(code);
+        }
+      }
+    });
+  }
+
+  /**
+   * Compiles the given function body.
+   *
+   * @param name the function's name
+   * @param suite the function's body
+   * @return the compiled code or {@code null} if the body cannot be compiled
+   */
+  public static synchronized PyCompiledCode compile(PyString name, PySuite suite) {
+    if (!initialize()) {
+      return null;
+    }
+    String className = "PyCompiled$" + name.value().replaceAll("\\W", "_") + "$" + ++classes;
+    PyCompiler compiler = new PyCompiler();
+    String source = compiler.generate(className, suite);
+    byte[] bytes = compile(className, source);
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      Class<?> c = new Loader().define(className, bytes);
+      return (PyCompiledCode) c.getConstructor(Object[].class).newInstance((Object) compiler.constants.toArray());
+    } catch (Exception e) {
+      if (DEBUG) {
+        e.printStackTrace();
+      }
+      return null;
+    }
+  }
+
+  private static boolean initialize() {
+    if (javac == null) {
+      javac = ToolProvider.getSystemJavaCompiler();
+      if (javac == null) {
+        return false;
+      }
+      fileManager = javac.getStandardFileManager(null, null, null);
+      String classpath = System.getProperty("java.class.path");
+      try {
+        File location = new File(PyObject.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        classpath = location.getPath() + File.pathSeparator + classpath;
+      } catch (Exception e) {
+        // use the class path only
+      }
+      options = Arrays.asList("-classpath", classpath, "-proc:none", "-nowarn");
+    }
+    return true;
+  }
+
+  private static byte[] compile(final String className, final String source) {
+    final Map<String, ByteArrayOutputStream> output = new HashMap<String, ByteArrayOutputStream>();
+    JavaFileManager manager = new ForwardingJavaFileManager<StandardJavaFileManager>(fileManager) {
+      @Override
+      public JavaFileObject getJavaFileForOutput(Location location, final String name, JavaFileObject.Kind kind, FileObject sibling) {
+        return new SimpleJavaFileObject(URI.create("mem:///" + name + kind.extension), kind) {
+          @Override
+          public OutputStream openOutputStream() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            output.put(name, out);
+            return out;
+          }
+        };
+      }
+    };
+    JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+    StringWriter diagnostics = new StringWriter();
+    Boolean success = javac.getTask(diagnostics, manager, null, options, null, Arrays.asList(file)).call();
+    if (!success || !output.containsKey(className)) {
+      if (DEBUG) {
+        System.err.println(source);
+        System.err.println(diagnostics);
+      }
+      return null;
+    }
+    return output.get(className).toByteArray();
+  }
+
+  private static class Loader extends ClassLoader {
+    Loader() {
+      super(PyCompiler.class.getClassLoader());
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // code generation
+
+  private final List<Object> constants = new ArrayList<Object>();
+  private final Map<Object, String> constantNames = new IdentityHashMap<Object, String>();
+  private final StringBuilder fields = new StringBuilder();
+  private final StringBuilder code = new StringBuilder();
+  private final List<Integer> loops = new ArrayList<Integer>();
+  private String indent = "    ";
+  private int temps;
+  private int labels;
+
+  private PyCompiler() {
+  }
+
+  private String generate(String className, PySuite suite) {
+    suite.compile(this);
+    emit("return PyObject.None;");
+
+    StringBuilder b = new StringBuilder();
+    b.append("import sma.py.ast.*;\n");
+    b.append("import sma.py.rt.*;\n\n");
+    b.append("public final class ").append(className).append(" extends PyCompiledCode {\n");
+    b.append(fields);
+    b.append("\n  public ").append(className).append("(Object[] k) {\n");
+    for (int i = 0; i < constants.size(); i++) {
+      b.append("    k").append(i).append(" = (").append(type(constants.get(i))).append(") k[").append(i).append("];\n");
+    }
+    b.append("  }\n\n");
+    b.append("  public PyObject execute(PyFrame frame) {\n");
+    b.append(code);
+    b.append("  }\n");
+    b.append("}\n");
+    return b.toString();
+  }
+
+  private static String type(Object constant) {
+    if (constant instanceof PyString) {
+      return "PyString";
+    }
+    if (constant instanceof PyObject) {
+      return "PyObject";
+    }
+    if (constant instanceof PyAttrCache) {
+      return "PyAttrCache";
+    }
+    if (constant instanceof PyGlobalCell) {
+      return "PyGlobalCell";
+    }
+    if (constant instanceof PyExpr) {
+      return "PyExpr";
+    }
+    return "PyStmt";
+  }
+
+  /**
+   * Returns the name of a field which holds the given object, a Python object, a node or a cache.
+   */
+  String constant(Object value) {
+    String name = constantNames.get(value);
+    if (name == null) {
+      name = "k" + constants.size();
+      constants.add(value);
+      constantNames.put(value, name);
+      fields.append("  private final ").append(type(value)).append(' ').append(name).append(";\n");
+    }
+    return name;
+  }
+
+  /**
+   * Emits a new local variable initialized with the given Java expression and returns its name.
+   */
+  String temp(String expr) {
+    return temp("PyObject", expr);
+  }
+
+  /**
+   * Emits a new local variable of the given type initialized with the given Java expression
+   * and returns its name.
+   */
+  String temp(String type, String expr) {
+    String name = "t" + temps++;
+    emit(type + " " + name + " = " + expr + ";");
+    return name;
+  }
+
+  /**
+   * Emits a Java statement.
+   */
+  void emit(String stmt) {
+    code.append(indent).append(stmt).append('\n');
+  }
+
+  /**
+   * Emits the given Java statement header and opens a block.
+   */
+  void begin(String header) {
+    emit(header + " {");
+    indent += "  ";
+  }
+
+  /**
+   * Closes the current block and opens an else block.
+   */
+  void otherwise() {
+    indent = indent.substring(2);
+    emit("} else {");
+    indent += "  ";
+  }
+
+  /**
+   * Closes the current block.
+   */
+  void end() {
+    indent = indent.substring(2);
+    emit("}");
+  }
+
+  /**
+   * Emits a Java statement which leaves the current block. The statement is guarded with an
+   * always true condition so that Java doesn't complain about unreachable statements.
+   */
+  void jump(String stmt) {
+    emit("if (true) " + stmt);
+  }
+
+  /**
+   * Emits the interpreter call of an expression node which cannot be compiled.
+   */
+  String delegate(PyExpr expr) {
+    return temp(constant(expr) + ".eval(frame)");
+  }
+
+  /**
+   * Emits the interpreter call of a statement node which cannot be compiled and passes on its
+   * completion, see {@link PyStmt#execute}.
+   */
+  void delegate(PyStmt stmt) {
+    String completion = temp(constant(stmt) + ".execute(frame)");
+    begin("if (" + completion + " != null)");
+    int label = currentLoop();
+    if (label != -1) {
+      emit("if (" + completion + " == PyStmt.BREAK) break b" + label + ";");
+      emit("if (" + completion + " == PyStmt.CONTINUE) continue l" + label + ";");
+    }
+    emit("return PyStmt.result(" + completion + ");");
+    end();
+  }
+
+  /**
+   * Begins a loop and returns its label number. A Python {@code break} leaves the block labeled
+   * {@code b<i>} which also contains the {@code else} clause, a Python {@code continue} continues
+   * the Java loop labeled {@code l<i>}.
+   */
+  int beginLoop() {
+    int label = labels++;
+    loops.add(label);
+    return label;
+  }
+
+  void endLoop() {
+    loops.remove(loops.size() - 1);
+  }
+
+  /**
+   * Returns the label number of the innermost loop or -1 if not inside of a loop.
+   */
+  int currentLoop() {
+    return loops.isEmpty() ? -1 : loops.get(loops.size() - 1);
+  }
+}
@@ -1,22 +1,32 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-/**
- * Abstract base class for constructor expressions.
- */
-public abstract class PyConstructor extends PyExpr {
-  protected final PyExprList values;
-
-  public PyConstructor(PyExprList values) {
-    this.values = values;
-  }
-
-  @Override
-  public String toString() {
-    return "" + delim().charAt(0) + values + delim().charAt(1);
-  }
-
-  protected abstract String delim();
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+/**
+ * Abstract base class for constructor expressions.
+ */
+public abstract class PyConstructor extends PyExpr {
+  protected final PyExprList values;
+
+  public PyConstructor(PyExprList values) {
+    this.values = values;
+  }
+
+  public PyExprList getValues() {
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    return "" + delim().charAt(0) + values + delim().charAt(1);
+  }
+
+  protected abstract String delim();
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    values.optimize(o);
+    return this;
+  }
+}
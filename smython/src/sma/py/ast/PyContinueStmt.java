@@ -1,22 +1,32 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>continue</code> statement, see 6.10.
- */
-public class PyContinueStmt extends PyStmt {
-  @Override
-  public String toString() {
-    return "continue";
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    throw new Py.ContinueSignal();
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>continue</code> statement, see §6.10.
+ */
+public class PyContinueStmt extends PyStmt {
+  @Override
+  public String toString() {
+    return "continue";
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    return CONTINUE;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    int label = c.currentLoop();
+    if (label == -1) {
+      c.delegate(this);
+    } else {
+      c.jump("continue l" + label + ";");
+    }
+  }
+}
@@ -1,43 +1,55 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyString;
-import sma.py.rt.PyTuple;
-import sma.py.rt.PyUserFunction;
-
-/**
- * Represents the <code>def</code> statement to define functions and methods, see 7.5.
- */
-public class PyDefStmt extends PyStmt {
-  private final PyString name;
-  private final PyParamList parameters;
-  private final PySuite suite;
-
-  public PyDefStmt(PyString name, PyParamList parameters, PySuite suite) {
-    this.name = name;
-    this.parameters = parameters;
-    this.suite = suite;
-  }
-
-  @Override
-  public String toString() {
-    return "def " + name + "(" + parameters + "): " + suite;
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    frame.setLocal(name, new PyUserFunction(
-      frame.getGlobals(),
-      name,
-      parameters.nargs,
-      parameters.names,
-      (PyTuple) parameters.inits.eval(frame),
-      parameters.rest,
-      parameters.kwrest,
-      suite));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+import sma.py.rt.PyTuple;
+import sma.py.rt.PyUserFunction;
+
+/**
+ * Represents the <code>def</code> statement to define functions and methods, see §7.5.
+ */
+public class PyDefStmt extends PyStmt {
+  private final PyString name;
+  private final PyParamList parameters;
+  private final PySuite suite;
+  private final PyString[] varnames;
+
+  public PyDefStmt(PyString name, PyParamList parameters, PySuite suite, PyString[] varnames) {
+    this.name = name;
+    this.parameters = parameters;
+    this.suite = suite;
+    this.varnames = varnames;
+  }
+
+  @Override
+  public String toString() {
+    return "def " + name + "(" + parameters + "): " + suite;
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    parameters.inits.optimize(o);
+    suite.optimize(o);
+    return this;
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    frame.setLocal(name, new PyUserFunction(
+      frame.getGlobals(),
+      name,
+      parameters.nargs,
+      parameters.names,
+      (PyTuple) parameters.inits.eval(frame),
+      parameters.rest,
+      parameters.kwrest,
+      suite,
+      varnames));
+    return null;
+  }
+
+}
@@ -1,28 +1,43 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the binary arithmetic divide (/) operation, see 5.6.
- */
-public class PyDivExpr extends PyBinaryExpr {
-
-  public PyDivExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "/";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).div(right.eval(frame));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFloat;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the binary arithmetic divide (/) operation, see §5.6.
+ */
+public class PyDivExpr extends PyBinaryExpr {
+
+  public PyDivExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "/";
+  }
+
+  @Override
+  protected int specialize(PyObject l, PyObject r) {
+    return isFloat(l, r) ? FLOAT : GENERIC;
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.div(r);
+  }
+
+  @Override
+  protected PyObject apply(double l, double r) {
+    return PyFloat.divide(l, r);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "div");
+  }
+
+}
@@ -1,55 +1,109 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Abstract base class for all expression nodes. An expression knows whether it is an assignment
- * or deletion target and whether it can be either evaluated or assigned to.
- */
-public abstract class PyExpr extends PyNode {
-  /**
-   * Evaluates the expression node in the context of the given frame and returns the result of the
-   * evaluation.
-   *
-   * @param frame the current context, storing local and global variables
-   * @return the result of the evaluation
-   */
-  public abstract PyObject eval(PyFrame frame);
-
-  /**
-   * Returns whether this expression node can play the role of a target and
-   * {@link #assign(PyFrame, PyObject)} or {@link #del(PyFrame)} can be called.
-   *
-   * @return <code>true</code> if the receiver can be a target; variables, attribute
-   * references, subscriptions and slices are targets as well as list and tuple
-   * constuctors which contain only targets.
-   */
-  public boolean isTarget() {
-    return false;
-  }
-
-  /**
-   * Assigns the given value to the target represented by this expression node.
-   * You may only call this method if {@link #isTarget()} returns true.
-   *
-   * @param frame the current context, storing local and global variables
-   * @param value the value to assign
-   */
-  public void assign(PyFrame frame, PyObject value) {
-    throw new UnsupportedOperationException();
-  }
-
-  /**
-   * Deletes something from the target represented by this expression node.
-   * You may only call this method if {@link #isTarget()} returns true.
-   *
-   * @param frame the current context, storing local and global variables
-   */
-  public void del(PyFrame frame) {
-    throw new UnsupportedOperationException();
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Abstract base class for all expression nodes. An expression knows whether it is an assignment
+ * or deletion target and whether it can be either evaluated or assigned to.
+ */
+public abstract class PyExpr extends PyNode {
+  /**
+   * Evaluates the expression node in the context of the given frame and returns the result of the
+   * evaluation.
+   *
+   * @param frame the current context, storing local and global variables
+   * @return the result of the evaluation
+   */
+  public abstract PyObject eval(PyFrame frame);
+
+  /**
+   * Evaluates the expression node as a condition, see {@link PyObject#truth()}. Conditional
+   * expressions override this method to spare the <code>True</code> or <code>False</code> object.
+   *
+   * @param frame the current context, storing local and global variables
+   * @return the truth value of the result of the evaluation
+   */
+  public boolean evalTruth(PyFrame frame) {
+    return eval(frame).truth();
+  }
+
+  /**
+   * Returns whether this expression node can play the role of a target and
+   * {@link #assign(PyFrame, PyObject)} or {@link #del(PyFrame)} can be called.
+   *
+   * @return <code>true</code> if the receiver can be a target; variables, attribute
+   * references, subscriptions and slices are targets as well as list and tuple
+   * constuctors which contain only targets.
+   */
+  public boolean isTarget() {
+    return false;
+  }
+
+  /**
+   * Assigns the given value to the target represented by this expression node.
+   * You may only call this method if {@link #isTarget()} returns true.
+   *
+   * @param frame the current context, storing local and global variables
+   * @param value the value to assign
+   */
+  public void assign(PyFrame frame, PyObject value) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Deletes something from the target represented by this expression node.
+   * You may only call this method if {@link #isTarget()} returns true.
+   *
+   * @param frame the current context, storing local and global variables
+   */
+  public void del(PyFrame frame) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Emits Java code which evaluates this expression node and returns the name of the Java variable
+   * or constant holding the result. Nodes which don't override this method are evaluated by the
+   * interpreter.
+   *
+   * @param c the compiler
+   * @return a side-effect free Java expression
+   */
+  String compile(PyCompiler c) {
+    return c.delegate(this);
+  }
+
+  /**
+   * Emits Java code which evaluates this expression node as a condition and returns a Java
+   * boolean expression like {@link #evalTruth(PyFrame)}.
+   *
+   * @param c the compiler
+   */
+  String compileTruth(PyCompiler c) {
+    return compile(c) + ".truth()";
+  }
+
+  /**
+   * Emits Java code which assigns the value of the given Java variable to the target represented by
+   * this expression node. Nodes which don't override this method are assigned by the interpreter.
+   *
+   * @param c the compiler
+   * @param value the name of the Java variable holding the value
+   */
+  void compileAssign(PyCompiler c, String value) {
+    c.emit(c.constant(this) + ".assign(frame, " + value + ");");
+  }
+
+  /**
+   * Returns the optimized expression node, see {@link PyOptimizer}. Nodes may replace their
+   * children and return themselves. Nodes which don't override this method stay as they are.
+   *
+   * @param o the optimizer
+   */
+  PyExpr optimize(PyOptimizer o) {
+    return this;
+  }
+}
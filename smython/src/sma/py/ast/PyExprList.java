@@ -1,132 +1,228 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyDict;
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-import sma.py.rt.PyTuple;
-
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Represents a list of {@code PyExpr} nodes. An expression list knows whether it is an assignment
- * or deletion node and can either evaluate all expressions of the list as tuple, as a dictionary
- * or assign to those expressions. If the expression list has no trailing comma and just one 
- * element, the expression list evaluates to a single value and not a tuple.
- *
- * Also represents the assignment statement, see 6.3.
- */
-public class PyExprList extends PyNode {
-  private final List<PyExpr> expressions;
-  private boolean tuple;
-  private PyExprList values;
-
-  public PyExprList() {
-    this.expressions = new ArrayList<PyExpr>();
-  }
-
-  public void add(PyExpr expr) {
-    expressions.add(expr);
-  }
-
-  public boolean isTuple() {
-    return tuple;
-  }
-
-  public void setTuple(boolean tuple) {
-    this.tuple = tuple;
-  }
-
-  public void setValues(PyExprList values) {
-    this.values = values;
-  }
-
-  public int size() {
-    return expressions.size();
-  }
-
-  public PyExpr get(int index) {
-    return expressions.get(index);
-  }
-
-  @Override
-  public String toString() {
-    return list(expressions, ",") + (tuple ? "," : "") + (values != null ? " = " + values : "");
-  }
-
-  /**
-   * Evaluates all expression nodes in the context of the given frame and and returns a tuple with
-   * all results of the evaluation.
-   */
-  public PyObject eval(PyFrame frame) {
-    if (values != null) {
-      return assign(frame, values.eval(frame));
-    }
-    if (!tuple && expressions.size() == 1) {
-      return expressions.get(0).eval(frame);
-    }
-    return evalAsTuple(frame);
-  }
-  
-  public PyTuple evalAsTuple(PyFrame frame) {
-    int size = expressions.size();
-    PyObject[] objects = new PyObject[size];
-    for (int i = 0; i < size; i++) {
-      objects[i] = expressions.get(i).eval(frame);
-    }
-    return new PyTuple(objects);
-  }
-  
-  public PyDict evalAsDictionary(PyFrame frame) {
-    int size = expressions.size();
-    PyDict dict = new PyDict(size / 2);
-    for (int i = 0; i < size; i += 2) {
-      dict.setItem(expressions.get(i).eval(frame), expressions.get(i + 1).eval(frame));
-    }
-    return dict;
-  }
-
-  /**
-   * Returns whether all expression nodes can play the role of a target and
-   * {@link #assign(PyFrame, PyObject)} or {@link #del(PyFrame)} can be called.
-   * @return <code>true</code> if all expression nodes are targets
-   */
-  public boolean isTarget() {
-    for (PyExpr expr : expressions) {
-      if (!expr.isTarget()) {
-        return false;
-      }
-    }
-    return true;
-  }
-
-  public PyObject assign(PyFrame frame, PyObject value) {
-    if (!tuple && expressions.size() == 1) {
-      expressions.get(0).assign(frame, value);
-    } else {
-      PyTuple tuple = (PyTuple) value;
-      int size = tuple.size();
-      if (expressions.size() < size) {
-        throw Py.valueError("too many values to unpack");
-      }
-      if (expressions.size() > size) {
-        throw Py.valueError("not enough values to unpack");
-      }
-      for (int i = 0; i < size; i++) {
-        expressions.get(i).assign(frame, tuple.get(i));
-      }
-    }
-    return value;
-  }
-
-  public void del(PyFrame frame) {
-    for (PyExpr expr : expressions) {
-      expr.del(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.Py;
+import sma.py.rt.PyDict;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyTuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a list of {@code PyExpr} nodes. An expression list knows whether it is an assignment
+ * or deletion node and can either evaluate all expressions of the list as tuple, as a dictionary
+ * or assign to those expressions. If the expression list has no trailing comma and just one 
+ * element, the expression list evaluates to a single value and not a tuple.
+ *
+ * Also represents the assignment statement, see §6.3.
+ */
+public class PyExprList extends PyNode {
+  private final List<PyExpr> expressions;
+  private boolean tuple;
+  private PyExprList values;
+
+  public PyExprList() {
+    this.expressions = new ArrayList<PyExpr>();
+  }
+
+  public void add(PyExpr expr) {
+    expressions.add(expr);
+  }
+
+  public boolean isTuple() {
+    return tuple;
+  }
+
+  public void setTuple(boolean tuple) {
+    this.tuple = tuple;
+  }
+
+  public void setValues(PyExprList values) {
+    this.values = values;
+  }
+
+  public int size() {
+    return expressions.size();
+  }
+
+  public PyExpr get(int index) {
+    return expressions.get(index);
+  }
+
+  @Override
+  public String toString() {
+    return list(expressions, ",") + (tuple ? "," : "") + (values != null ? " = " + values : "");
+  }
+
+  /**
+   * Evaluates all expression nodes in the context of the given frame and and returns a tuple with
+   * all results of the evaluation.
+   */
+  public PyObject eval(PyFrame frame) {
+    if (values != null) {
+      return assign(frame, values.eval(frame));
+    }
+    if (!tuple && expressions.size() == 1) {
+      return expressions.get(0).eval(frame);
+    }
+    return evalAsTuple(frame);
+  }
+  
+  public PyTuple evalAsTuple(PyFrame frame) {
+    return PyTuple.of(evalAsArray(frame));
+  }
+
+  public PyObject[] evalAsArray(PyFrame frame) {
+    int size = expressions.size();
+    PyObject[] objects = new PyObject[size];
+    for (int i = 0; i < size; i++) {
+      objects[i] = expressions.get(i).eval(frame);
+    }
+    return objects;
+  }
+  
+  public PyDict evalAsDictionary(PyFrame frame) {
+    int size = expressions.size();
+    PyDict dict = new PyDict(size / 2);
+    for (int i = 0; i < size; i += 2) {
+      dict.setItem(expressions.get(i).eval(frame), expressions.get(i + 1).eval(frame));
+    }
+    return dict;
+  }
+
+  /**
+   * Returns whether all expression nodes can play the role of a target and
+   * {@link #assign(PyFrame, PyObject)} or {@link #del(PyFrame)} can be called.
+   * @return <code>true</code> if all expression nodes are targets
+   */
+  public boolean isTarget() {
+    for (PyExpr expr : expressions) {
+      if (!expr.isTarget()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public PyObject assign(PyFrame frame, PyObject value) {
+    if (!tuple && expressions.size() == 1) {
+      expressions.get(0).assign(frame, value);
+    } else {
+      int size = expressions.size();
+      PyTuple tuple = unpack(value, size);
+      for (int i = 0; i < size; i++) {
+        expressions.get(i).assign(frame, tuple.get(i));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Returns the given value as a tuple of the given size or raises a <code>ValueError</code>.
+   * Called by {@link #assign(PyFrame, PyObject)} and by compiled code.
+   */
+  public static PyTuple unpack(PyObject value, int size) {
+    PyTuple tuple = (PyTuple) value;
+    if (size < tuple.size()) {
+      throw Py.valueError("too many values to unpack");
+    }
+    if (size > tuple.size()) {
+      throw Py.valueError("not enough values to unpack");
+    }
+    return tuple;
+  }
+
+  public void del(PyFrame frame) {
+    for (PyExpr expr : expressions) {
+      expr.del(frame);
+    }
+  }
+
+  /**
+   * Emits Java code like {@link #eval(PyFrame)} and returns the name of the Java variable holding
+   * the result.
+   */
+  String compile(PyCompiler c) {
+    if (values != null) {
+      String value = values.compile(c);
+      compileAssign(c, value);
+      return value;
+    }
+    if (!tuple && expressions.size() == 1) {
+      return expressions.get(0).compile(c);
+    }
+    return compileAsTuple(c);
+  }
+
+  String compileAsTuple(PyCompiler c) {
+    return c.temp("PyTuple.of(" + compileAsArray(c) + ")");
+  }
+
+  /**
+   * Emits Java code which evaluates all expression nodes and returns a Java array constructor
+   * with all results of the evaluation.
+   */
+  String compileAsArray(PyCompiler c) {
+    StringBuilder b = new StringBuilder("new PyObject[]{");
+    for (int i = 0; i < expressions.size(); i++) {
+      if (i > 0) {
+        b.append(", ");
+      }
+      b.append(expressions.get(i).compile(c));
+    }
+    return b.append('}').toString();
+  }
+
+  String compileAsDictionary(PyCompiler c) {
+    int size = expressions.size();
+    String dict = c.temp("PyDict", "new PyDict(" + size / 2 + ")");
+    for (int i = 0; i < size; i += 2) {
+      String key = expressions.get(i).compile(c);
+      c.emit(dict + ".setItem(" + key + ", " + expressions.get(i + 1).compile(c) + ");");
+    }
+    return dict;
+  }
+
+  /**
+   * Emits Java code like {@link #assign(PyFrame, PyObject)}.
+   */
+  void compileAssign(PyCompiler c, String value) {
+    if (!tuple && expressions.size() == 1) {
+      expressions.get(0).compileAssign(c, value);
+    } else {
+      int size = expressions.size();
+      String tuple = c.temp("PyTuple", "PyExprList.unpack(" + value + ", " + size + ")");
+      for (int i = 0; i < size; i++) {
+        expressions.get(i).compileAssign(c, tuple + ".get(" + i + ")");
+      }
+    }
+  }
+
+  /**
+   * Replaces all expression nodes with their optimized versions.
+   */
+  void optimize(PyOptimizer o) {
+    for (int i = 0; i < expressions.size(); i++) {
+      expressions.set(i, expressions.get(i).optimize(o));
+    }
+    if (values != null) {
+      values.optimize(o);
+    }
+  }
+
+  /**
+   * Returns whether all expression nodes are literals.
+   */
+  boolean isLiteral() {
+    for (PyExpr expr : expressions) {
+      if (!PyOptimizer.isLiteral(expr)) {
+        return false;
+      }
+    }
+    return values == null;
+  }
+}
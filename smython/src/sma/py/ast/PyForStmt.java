@@ -1,52 +1,220 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyIterator;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the <code>for</code> statement, see 7.3.
- */
-public class PyForStmt extends PyStmt {
-  private final PyExprList targets;
-  private final PyExprList expressions;
-  private final PySuite bodyClause;
-  private final PySuite elseClause;
-
-  public PyForStmt(PyExprList targets, PyExprList expressions, PySuite bodyClause, PySuite elseClause) {
-    this.targets = targets;
-    this.expressions = expressions;
-    this.bodyClause = bodyClause;
-    this.elseClause = elseClause;
-  }
-
-  @Override
-  public String toString() {
-    return "for " + targets + " in " + expressions + ": " + bodyClause + (elseClause != null ? " else: " + elseClause : "");
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    PyIterator iterator = expressions.eval(frame).iter();
-    PyObject object;
-    while ((object = iterator.next()) != null) {
-      try {
-        targets.assign(frame, object);
-        bodyClause.execute(frame);
-      } catch (Py.BreakSignal s) {
-        return;
-      } catch (Py.ContinueSignal s) {
-        //noinspection UnnecessaryContinue
-        continue;
-      }
-    }
-    if (elseClause != null) {
-      elseClause.execute(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyDict;
+import sma.py.rt.PyDictView;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyIterator;
+import sma.py.rt.PyList;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyRange;
+import sma.py.rt.PyString;
+import sma.py.rt.PyTuple;
+
+/**
+ * Represents the <code>for</code> statement, see §7.3.
+ * <p>
+ * Loops over <code>range()</code> call <code>xrange()</code> instead, so that no list is built.
+ * Ranges, lists, tuples, strings and dictionaries are iterated by the interpreter without
+ * iterator objects; other sequences and compiled code use {@link PyObject#iter()}.
+ */
+public class PyForStmt extends PyStmt {
+  private final PyExprList targets;
+  private final PyExprList expressions;
+  private final PySuite bodyClause;
+  private final PySuite elseClause;
+
+  public PyForStmt(PyExprList targets, PyExprList expressions, PySuite bodyClause, PySuite elseClause) {
+    this.targets = targets;
+    this.expressions = expressions;
+    this.bodyClause = bodyClause;
+    this.elseClause = elseClause;
+  }
+
+  @Override
+  public String toString() {
+    return "for " + targets + " in " + expressions + ": " + bodyClause + (elseClause != null ? " else: " + elseClause : "");
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    PyObject sequence;
+    PyCall call = getCall();
+    if (call != null) {
+      sequence = call.invoke(frame, range(call.getPrimary().eval(frame)));
+    } else {
+      sequence = expressions.eval(frame);
+    }
+    if (sequence instanceof PyRange) {
+      return execute(frame, (PyRange) sequence);
+    }
+    if (sequence instanceof PyList) {
+      return execute(frame, (PyList) sequence);
+    }
+    if (sequence instanceof PyTuple) {
+      return execute(frame, (PyTuple) sequence);
+    }
+    if (sequence instanceof PyString) {
+      return execute(frame, (PyString) sequence);
+    }
+    if (sequence instanceof PyDict) {
+      return execute(frame, (PyDict) sequence);
+    }
+    if (sequence instanceof PyDictView && ((PyDictView) sequence).getKind() == PyDictView.ITEMS) {
+      return execute(frame, ((PyDictView) sequence).getDict());
+    }
+    PyIterator iterator = sequence.iter();
+    PyObject object;
+    while ((object = iterator.next()) != null) {
+      targets.assign(frame, object);
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    return executeElse(frame);
+  }
+
+  private PyObject execute(PyFrame frame, PyRange range) {
+    int step = range.getStep();
+    for (int i = range.size(), value = range.getStart(); i > 0; i--, value += step) {
+      targets.assign(frame, PyObject.make(value));
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    return executeElse(frame);
+  }
+
+  // like Python, the size is checked again for each element so that the body may change the list
+  private PyObject execute(PyFrame frame, PyList list) {
+    for (int i = 0; i < list.size(); i++) {
+      targets.assign(frame, list.get(i));
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    return executeElse(frame);
+  }
+
+  private PyObject execute(PyFrame frame, PyTuple tuple) {
+    for (int i = 0, size = tuple.size(); i < size; i++) {
+      targets.assign(frame, tuple.get(i));
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    return executeElse(frame);
+  }
+
+  private PyObject execute(PyFrame frame, PyString string) {
+    String s = string.value();
+    for (int i = 0, length = s.length(); i < length; i++) {
+      targets.assign(frame, PyString.valueOf(s.charAt(i)));
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    return executeElse(frame);
+  }
+
+  // items are (key, value) pairs which are assigned directly to two targets
+  private PyObject execute(PyFrame frame, PyDict dict) {
+    boolean pair = targets.size() == 2;
+    int size = dict.size();
+    for (int i = dict.nextIndex(0); i != -1; i = dict.nextIndex(i + 1)) {
+      if (pair) {
+        targets.get(0).assign(frame, dict.keyAt(i));
+        targets.get(1).assign(frame, dict.valueAt(i));
+      } else {
+        targets.assign(frame, PyTuple.of(dict.keyAt(i), dict.valueAt(i)));
+      }
+      PyObject completion = executeBody(frame);
+      if (completion != null) {
+        return completion == BREAK ? null : completion;
+      }
+      dict.checkSize(size);
+    }
+    return executeElse(frame);
+  }
+
+  /**
+   * Executes the body and returns its completion or {@code null} if the loop shall go on.
+   */
+  private PyObject executeBody(PyFrame frame) {
+    PyObject completion = bodyClause.execute(frame);
+    return completion == CONTINUE ? null : completion;
+  }
+
+  private PyObject executeElse(PyFrame frame) {
+    if (elseClause != null) {
+      return elseClause.execute(frame);
+    }
+    return null;
+  }
+
+  /**
+   * Returns the call if the statement loops over the result of a call with positional arguments
+   * which might be a call of <code>range()</code>, {@code null} otherwise.
+   */
+  private PyCall getCall() {
+    if (expressions.size() == 1 && !expressions.isTuple() && expressions.get(0) instanceof PyCall) {
+      PyCall call = (PyCall) expressions.get(0);
+      if (call.isPositional()) {
+        return call;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns <code>xrange()</code> if the given callable is <code>range()</code> and the callable
+   * itself otherwise.
+   */
+  public static PyObject range(PyObject callable) {
+    return callable == PyRange.RANGE ? PyRange.XRANGE : callable;
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    expressions.optimize(o);
+    bodyClause.optimize(o);
+    if (elseClause != null) {
+      elseClause.optimize(o);
+    }
+    return this;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    String sequence;
+    PyCall call = getCall();
+    if (call != null) {
+      String callable = c.temp("PyForStmt.range(" + call.getPrimary().compile(c) + ")");
+      sequence = c.temp(callable + ".invoke(frame" + call.compileArguments(c) + ")");
+    } else {
+      sequence = expressions.compile(c);
+    }
+    String iterator = c.temp("PyIterator", sequence + ".iter()");
+    int label = c.beginLoop();
+    c.begin("b" + label + ":");
+    c.begin("l" + label + ": while (true)");
+    String object = c.temp(iterator + ".next()");
+    c.emit("if (" + object + " == null) break l" + label + ";");
+    targets.compileAssign(c, object);
+    bodyClause.compile(c);
+    c.end();
+    c.endLoop();
+    if (elseClause != null) {
+      elseClause.compile(c);
+    }
+    c.end();
+  }
+
+}
@@ -12,7 +12,7 @@ import sma.py.rt.PyString;
 import java.util.List;
 
 /**
- * Represents the <code>import</code> statement, see 6.11.
+ * Represents the <code>import</code> statement, see §6.11.
  */
 public class PyFromImportStmt extends PyStmt {
   private final PyString module;
@@ -29,7 +29,7 @@ public class PyFromImportStmt extends PyStmt {
   }
 
   @Override
-  public void execute(PyFrame frame) {
+  public PyObject execute(PyFrame frame) {
     if (module.value().equals("sys")) { //TODO need to generalize
       PyModule module = new PyModule(new PyDict());
       module.setAttr(PyObject.intern("__name__"), module);
@@ -42,6 +42,7 @@ public class PyFromImportStmt extends PyStmt {
         }
       }
     }
+    return null;
   }
 
 }
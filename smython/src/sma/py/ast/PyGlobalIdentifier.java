@@ -5,7 +5,7 @@ import sma.py.rt.PyObject;
 import sma.py.rt.PyString;
 
 /**
- * Represents a global identifier, see 5.2.1, or a target, see 6.3.
+ * Represents a global identifier, see §5.2.1, or a target, see §6.3.
  */
 public class PyGlobalIdentifier extends PyIdentifier {
   public PyGlobalIdentifier(PyString name) {
@@ -14,7 +14,7 @@ public class PyGlobalIdentifier extends PyIdentifier {
 
   @Override
   public PyObject eval(PyFrame frame) {
-    return frame.getGlobal(getName());
+    return frame.getGlobal(getName(), cell);
   }
 
   @Override
@@ -22,6 +22,16 @@ public class PyGlobalIdentifier extends PyIdentifier {
     frame.setGlobal(getName(), value);
   }
 
+  @Override
+  String compile(PyCompiler c) {
+    return c.temp("frame.getGlobal(" + c.constant(getName()) + ", " + c.constant(cell) + ")");
+  }
+
+  @Override
+  void compileAssign(PyCompiler c, String value) {
+    c.emit("frame.setGlobal(" + c.constant(getName()) + ", " + value + ");");
+  }
+
   @Override
   public void del(PyFrame frame) {
     frame.delGlobal(getName());
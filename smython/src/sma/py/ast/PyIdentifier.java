@@ -1,49 +1,88 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-import sma.py.rt.PyString;
-
-/**
- * Represents a identifier, see 5.2.1, or a target, see 6.3. 
- */
-public class PyIdentifier extends PyExpr {
-  private final PyString name;
-
-  public PyIdentifier(PyString name) {
-    this.name = name;
-  }
-
-  public PyString getName() {
-    return name;
-  }
-
-  @Override
-  public String toString() {
-    return name.value();
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return frame.getLocal(name);
-  }
-
-  @Override
-  public boolean isTarget() {
-    return true;
-  }
-
-  @Override
-  public void assign(PyFrame frame, PyObject value) {
-    frame.setLocal(name, value);
-  }
-
-  @Override
-  public void del(PyFrame frame) {
-    frame.delLocal(name);
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyGlobalCell;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+
+/**
+ * Represents a identifier, see §5.2.1, or a target, see §6.3. 
+ */
+public class PyIdentifier extends PyExpr {
+  private final PyString name;
+  private int index = -1;
+  final PyGlobalCell cell = new PyGlobalCell();
+
+  public PyIdentifier(PyString name) {
+    this.name = name;
+  }
+
+  public PyString getName() {
+    return name;
+  }
+
+  /**
+   * Binds this identifier to the given slot of a function frame.
+   * Called by the parser once all local variables of a function are known.
+   */
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
+  @Override
+  public String toString() {
+    return name.value();
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    if (index != -1) {
+      return frame.getFast(index, name);
+    }
+    return frame.getLocal(name, cell);
+  }
+
+  @Override
+  public boolean isTarget() {
+    return true;
+  }
+
+  @Override
+  public void assign(PyFrame frame, PyObject value) {
+    if (index != -1) {
+      frame.setFast(index, value);
+    } else {
+      frame.setLocal(name, value);
+    }
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    if (index != -1) {
+      return c.temp("frame.getFast(" + index + ", " + c.constant(name) + ")");
+    }
+    return c.temp("frame.getLocal(" + c.constant(name) + ", " + c.constant(cell) + ")");
+  }
+
+  @Override
+  void compileAssign(PyCompiler c, String value) {
+    if (index != -1) {
+      c.emit("frame.setFast(" + index + ", " + value + ");");
+    } else {
+      c.emit("frame.setLocal(" + c.constant(name) + ", " + value + ");");
+    }
+  }
+
+  @Override
+  public void del(PyFrame frame) {
+    if (index != -1) {
+      frame.delFast(index, name);
+    } else {
+      frame.delLocal(name);
+    }
+  }
+
+}
@@ -1,36 +1,62 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>if</code> statement, see 7.1.
- */
-public class PyIfStmt extends PyStmt {
-  private final PyExpr condition;
-  private final PySuite thenClause;
-  private final PySuite elseClause;
-
-  public PyIfStmt(PyExpr condition, PySuite thenClause, PySuite elseClause) {
-    this.condition = condition;
-    this.thenClause = thenClause;
-    this.elseClause = elseClause;
-  }
-
-  @Override
-  public String toString() {
-    return "if " + condition + ": " + thenClause + (elseClause != null ? " else: " + elseClause : "");
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    if (condition.eval(frame).truth()) {
-      thenClause.execute(frame);
-    } else if (elseClause != null) {
-      elseClause.execute(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>if</code> statement, see §7.1.
+ */
+public class PyIfStmt extends PyStmt {
+  private PyExpr condition;
+  private final PySuite thenClause;
+  private final PySuite elseClause;
+
+  public PyIfStmt(PyExpr condition, PySuite thenClause, PySuite elseClause) {
+    this.condition = condition;
+    this.thenClause = thenClause;
+    this.elseClause = elseClause;
+  }
+
+  @Override
+  public String toString() {
+    return "if " + condition + ": " + thenClause + (elseClause != null ? " else: " + elseClause : "");
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    if (condition.evalTruth(frame)) {
+      return thenClause.execute(frame);
+    } else if (elseClause != null) {
+      return elseClause.execute(frame);
+    }
+    return null;
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    condition = condition.optimize(o);
+    thenClause.optimize(o);
+    if (elseClause != null) {
+      elseClause.optimize(o);
+    }
+    if (PyOptimizer.isLiteral(condition)) {
+      return condition.eval(null).truth() ? thenClause : elseClause;
+    }
+    return this;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    c.begin("if (" + condition.compileTruth(c) + ")");
+    thenClause.compile(c);
+    if (elseClause != null) {
+      c.otherwise();
+      elseClause.compile(c);
+    }
+    c.end();
+  }
+
+}
@@ -1,46 +1,59 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-import sma.py.rt.PyUserFunction;
-
-/**
- * Represents the <code>lambda</code> expression, see 5.10.
- */
-public class PyLambda extends PyExpr {
-  private final PyParamList parameters;
-  private final PyExpr expr;
-
-  public PyLambda(PyParamList parameters, PyExpr expr) {
-    this.parameters = parameters;
-    this.expr = expr;
-  }
-
-  @Override
-  public String toString() {
-    return "lambda " + parameters + ": " + expr;
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    //TODO no need to do this every time
-    PyExprList list = new PyExprList();
-    list.add(expr);
-    PySuite suite = new PySuite();
-    suite.add(new PyReturnStmt(list));
-
-    return new PyUserFunction(
-      frame.getGlobals(),
-      PyObject.intern("<lambda>"), //TODO intern this only once
-      parameters.nargs,
-      parameters.names,
-      parameters.inits.evalAsTuple(frame),
-      parameters.rest,
-      parameters.kwrest,
-      suite);
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+import sma.py.rt.PyUserFunction;
+
+/**
+ * Represents the <code>lambda</code> expression, see §5.10.
+ */
+public class PyLambda extends PyExpr {
+  private static final PyString NAME = PyObject.intern("<lambda>");
+
+  private final PyParamList parameters;
+  private final PyExpr expr;
+  private final PySuite suite;
+  private final PyString[] varnames;
+
+  public PyLambda(PyParamList parameters, PyExpr expr, PyString[] varnames) {
+    this.parameters = parameters;
+    this.expr = expr;
+    this.varnames = varnames;
+
+    PyExprList list = new PyExprList();
+    list.add(expr);
+    this.suite = new PySuite();
+    this.suite.add(new PyReturnStmt(list));
+  }
+
+  @Override
+  public String toString() {
+    return "lambda " + parameters + ": " + expr;
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    parameters.inits.optimize(o);
+    suite.optimize(o);
+    return this;
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    return new PyUserFunction(
+      frame.getGlobals(),
+      NAME,
+      parameters.nargs,
+      parameters.names,
+      parameters.inits.evalAsTuple(frame),
+      parameters.rest,
+      parameters.kwrest,
+      suite,
+      varnames);
+  }
+
+}
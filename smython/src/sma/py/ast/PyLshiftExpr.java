@@ -1,27 +1,38 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the binary left-shift operation, see 5.7.
- */
-public class PyLshiftExpr extends PyBinaryExpr {
-
-  public PyLshiftExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "<<";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).lshift(right.eval(frame));
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the binary left-shift operation, see §5.7.
+ */
+public class PyLshiftExpr extends PyBinaryExpr {
+
+  public PyLshiftExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "<<";
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.lshift(r);
+  }
+
+  @Override
+  boolean isTooLarge(PyObject l, PyObject r) {
+    int bits = PyOptimizer.bitLength(l);
+    return bits > 0 && PyOptimizer.isTooLarge(bits + PyOptimizer.doubleValue(r));
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "lshift");
+  }
+
+}
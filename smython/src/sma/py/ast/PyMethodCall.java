@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyAttrCache;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyInstance;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+
+/**
+ * Represents a call of an attribute reference like {@code a.m(b)}. If the attribute is a function
+ * of the instance's class, the function is called with the instance as first argument directly,
+ * without creating a bound method object first. All other calls behave like {@link PyCall}.
+ */
+public class PyMethodCall extends PyCall {
+  private final PyExpr receiver;
+  private final PyString name;
+  private final PyAttrCache cache = new PyAttrCache();
+
+  public PyMethodCall(PyAttrRef method) {
+    super(method);
+    this.receiver = method.getPrimary();
+    this.name = method.getName();
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    if (!isPositional()) {
+      return super.eval(frame);
+    }
+    PyObject self = receiver.eval(frame);
+    PyObject function = self instanceof PyInstance ? ((PyInstance) self).getMethod(name, cache) : null;
+    if (function == null) {
+      return invoke(frame, self.getAttr(name, cache));
+    }
+    switch (args.size()) {
+    case 0:
+      return function.invoke(frame, self);
+    case 1:
+      return function.invoke(frame, self, args.get(0).eval(frame));
+    case 2:
+      return function.invoke(frame, self, args.get(0).eval(frame), args.get(1).eval(frame));
+    default:
+      PyObject[] arguments = new PyObject[args.size() + 1];
+      arguments[0] = self;
+      for (int i = 1; i < arguments.length; i++) {
+        arguments[i] = args.get(i - 1).eval(frame);
+      }
+      return function.invoke(frame, arguments);
+    }
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    if (!isPositional()) {
+      return super.compile(c);
+    }
+    String self = receiver.compile(c);
+    String cache = c.constant(this.cache);
+    String key = c.constant(name);
+    String function = c.temp(self + " instanceof PyInstance ? ((PyInstance) " + self + ").getMethod(" + key + ", " + cache + ") : null");
+    String callable = c.temp(function + " == null ? " + self + ".getAttr(" + key + ", " + cache + ") : null");
+    int size = args.size();
+    String[] arguments = new String[size];
+    for (int i = 0; i < size; i++) {
+      arguments[i] = args.get(i).compile(c);
+    }
+    StringBuilder method = new StringBuilder(self);
+    StringBuilder plain = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      method.append(", ").append(arguments[i]);
+      plain.append(i > 0 ? ", " : "").append(arguments[i]);
+    }
+    String methodArguments = size > 2 ? "new PyObject[]{" + method + "}" : method.toString();
+    String plainArguments = size > 3 ? "new PyObject[]{" + plain + "}" : plain.toString();
+    return c.temp(function + " != null" +
+        " ? " + function + ".invoke(frame, " + methodArguments + ")" +
+        " : " + callable + ".invoke(frame" + (size > 0 ? ", " : "") + plainArguments + ")");
+  }
+}
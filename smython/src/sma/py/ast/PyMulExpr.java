@@ -1,28 +1,65 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the binary arithmetic multiply (*) operation, see 5.6.
- */
-public class PyMulExpr extends PyBinaryExpr {
-
-  public PyMulExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "*";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).mul(right.eval(frame));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyInt;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the binary arithmetic multiply (*) operation, see §5.6.
+ */
+public class PyMulExpr extends PyBinaryExpr {
+
+  public PyMulExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "*";
+  }
+
+  @Override
+  protected int specialize(PyObject l, PyObject r) {
+    if (l instanceof PyInt && r instanceof PyInt) {
+      return INT;
+    }
+    return isFloat(l, r) ? FLOAT : GENERIC;
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.mul(r);
+  }
+
+  @Override
+  protected PyObject apply(int l, int r) {
+    return PyInt.times(l, r);
+  }
+
+  @Override
+  protected PyObject apply(double l, double r) {
+    return PyObject.make(l * r);
+  }
+
+  @Override
+  boolean isTooLarge(PyObject l, PyObject r) {
+    if (PyOptimizer.length(l) == -1 && PyOptimizer.length(r) != -1) {
+      return isTooLarge(r, l);
+    }
+    int length = PyOptimizer.length(l);
+    if (length != -1) {
+      return PyOptimizer.isTooLarge(length * PyOptimizer.doubleValue(r));
+    }
+    int bits1 = PyOptimizer.bitLength(l);
+    int bits2 = PyOptimizer.bitLength(r);
+    return bits1 > 0 && bits2 > 0 && PyOptimizer.isTooLarge(bits1 + bits2 - 1);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "mul");
+  }
+
+}
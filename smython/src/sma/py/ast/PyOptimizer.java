@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFloat;
+import sma.py.rt.PyInt;
+import sma.py.rt.PyLong;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyString;
+import sma.py.rt.PyTuple;
+
+import java.math.BigInteger;
+
+/**
+ * Simplifies parsed code before it is executed. Operations whose operands are all literals are
+ * computed once and replaced by literals, tuples of literals become constants, and branches of
+ * <code>if</code> and <code>while</code> statements whose conditions are literals are dropped. Each
+ * node knows how to optimize itself and its children; nodes which don't know stay as they are.
+ * <p>
+ * Set the system property {@code sma.py.optimize} to also remove <code>assert</code> statements.
+ *
+ * @see PyExpr#optimize(PyOptimizer)
+ * @see PyStmt#optimize(PyOptimizer)
+ */
+public class PyOptimizer {
+  public static final boolean REMOVE_ASSERTS = Boolean.getBoolean("sma.py.optimize");
+
+  // larger strings, tuples and longs computed from literals are left to the runtime
+  private static final int MAX_SIZE = 256;
+
+  private final boolean removeAsserts;
+
+  public PyOptimizer() {
+    this(REMOVE_ASSERTS);
+  }
+
+  public PyOptimizer(boolean removeAsserts) {
+    this.removeAsserts = removeAsserts;
+  }
+
+  public PySuite optimize(PySuite suite) {
+    suite.optimize(this);
+    return suite;
+  }
+
+  public PyExpr optimize(PyExpr expr) {
+    return expr.optimize(this);
+  }
+
+  boolean removeAsserts() {
+    return removeAsserts;
+  }
+
+  /**
+   * Returns a literal for the result of the given expression whose operands are all literals or
+   * the expression itself if its evaluation fails or its result is too large. Failing expressions
+   * will fail again at run time.
+   */
+  PyExpr fold(PyExpr expr) {
+    PyObject value;
+    try {
+      value = expr.eval(null);
+    } catch (RuntimeException e) {
+      return expr;
+    }
+    if (!isConstant(value)) {
+      return expr;
+    }
+    return new PyLiteral(value);
+  }
+
+  private static boolean isConstant(PyObject value) {
+    if (value instanceof PyInt || value instanceof PyFloat) {
+      return true;
+    }
+    if (value instanceof PyLong) {
+      return ((PyLong) value).value().bitLength() <= MAX_SIZE;
+    }
+    if (value instanceof PyString) {
+      return ((PyString) value).value().length() <= MAX_SIZE;
+    }
+    if (value instanceof PyTuple) {
+      return ((PyTuple) value).size() <= MAX_SIZE;
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether a string or tuple of the given length or a long of the given number of bits
+   * is too large to be folded. Operations which may create such values estimate the size of their
+   * result before they are folded, see {@link PyBinaryExpr#isTooLarge(PyObject, PyObject)}.
+   */
+  static boolean isTooLarge(double size) {
+    return size > MAX_SIZE;
+  }
+
+  /**
+   * Returns the number of bits of the absolute value of the given int or long, or -1 for other
+   * values.
+   */
+  static int bitLength(PyObject value) {
+    if (value instanceof PyInt) {
+      return BigInteger.valueOf(((PyInt) value).value()).abs().bitLength();
+    }
+    if (value instanceof PyLong) {
+      return ((PyLong) value).value().abs().bitLength();
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the length of the given string or tuple, or -1 for other values.
+   */
+  static int length(PyObject value) {
+    if (value instanceof PyString) {
+      return ((PyString) value).value().length();
+    }
+    if (value instanceof PyTuple) {
+      return ((PyTuple) value).size();
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the value of the given int or long, or NaN for other values.
+   */
+  static double doubleValue(PyObject value) {
+    if (value instanceof PyInt) {
+      return ((PyInt) value).value();
+    }
+    if (value instanceof PyLong) {
+      return ((PyLong) value).value().doubleValue();
+    }
+    return Double.NaN;
+  }
+
+  static boolean isLiteral(PyExpr expr) {
+    return expr instanceof PyLiteral;
+  }
+}
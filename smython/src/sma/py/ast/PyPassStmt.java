@@ -1,22 +1,28 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>pass</code> statement, see 6.4.
- */
-public class PyPassStmt extends PyStmt {
-
-  @Override
-  public String toString() {
-    return "pass";
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>pass</code> statement, see §6.4.
+ */
+public class PyPassStmt extends PyStmt {
+
+  @Override
+  public String toString() {
+    return "pass";
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    return null;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+  }
+
+}
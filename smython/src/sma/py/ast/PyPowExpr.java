@@ -1,27 +1,39 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the power operation (**), see 5.4. 
- */
-public class PyPowExpr extends PyBinaryExpr {
-
-  public PyPowExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "**";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).pow(right.eval(frame));
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the power operation (**), see §5.4. 
+ */
+public class PyPowExpr extends PyBinaryExpr {
+
+  public PyPowExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "**";
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.pow(r);
+  }
+
+  // the result has at least (bits - 1) * exponent + 1 bits
+  @Override
+  boolean isTooLarge(PyObject l, PyObject r) {
+    int bits = PyOptimizer.bitLength(l);
+    return bits > 1 && PyOptimizer.isTooLarge((bits - 1) * PyOptimizer.doubleValue(r));
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "pow");
+  }
+
+}
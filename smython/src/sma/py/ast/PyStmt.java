@@ -1,32 +1,84 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Abstract base class for all statement nodes. A statement can be executed.
- */
-public abstract class PyStmt extends PyNode {
-  /**
-   * Evaluates the expression node in the context of the given frame and returns the result of the
-   * evaluation.
-   *
-   * @param frame the current context, storing local and global variables
-   * @return <code>PyObject.None</code> because statements have no value
-   */
-  public PyObject eval(PyFrame frame) {
-    execute(frame);
-    return PyObject.None;
-  }
-
-  /**
-   * Executes the statement node in the context of the given frame.
-   *
-   * @param frame the current context, storing local and global variables
-   */
-  public abstract void execute(PyFrame frame);
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Abstract base class for all statement nodes. A statement can be executed.
+ */
+public abstract class PyStmt extends PyNode {
+  /**
+   * Evaluates the expression node in the context of the given frame and returns the result of the
+   * evaluation.
+   *
+   * @param frame the current context, storing local and global variables
+   * @return <code>PyObject.None</code> because statements have no value
+   */
+  public PyObject eval(PyFrame frame) {
+    execute(frame);
+    return PyObject.None;
+  }
+
+  /**
+   * Completion of a <code>break</code> statement, see {@link #execute(PyFrame)}.
+   */
+  public static final PyObject BREAK = new PyObject() {
+    @Override
+    public String toString() {
+      return "<break>";
+    }
+  };
+
+  /**
+   * Completion of a <code>continue</code> statement, see {@link #execute(PyFrame)}.
+   */
+  public static final PyObject CONTINUE = new PyObject() {
+    @Override
+    public String toString() {
+      return "<continue>";
+    }
+  };
+
+  /**
+   * Executes the statement node in the context of the given frame and returns how the statement
+   * completed. Instead of throwing exceptions, <code>break</code>, <code>continue</code> and
+   * <code>return</code> statements complete abruptly and compound statements pass that
+   * completion on to the statement which handles it.
+   *
+   * @param frame the current context, storing local and global variables
+   * @return <code>null</code> if the statement completed normally, {@link #BREAK} or
+   * {@link #CONTINUE} if a loop shall be left or continued, or the result of a
+   * <code>return</code> statement
+   */
+  public abstract PyObject execute(PyFrame frame);
+
+  /**
+   * Returns the result of a function whose body completed with the given completion.
+   */
+  public static PyObject result(PyObject completion) {
+    return completion == null || completion == BREAK || completion == CONTINUE ? PyObject.None : completion;
+  }
+
+  /**
+   * Emits Java code which executes this statement node. Nodes which don't override this method are
+   * executed by the interpreter.
+   *
+   * @param c the compiler
+   */
+  void compile(PyCompiler c) {
+    c.delegate(this);
+  }
+
+  /**
+   * Returns the optimized statement node or <code>null</code> if the statement can be dropped, see
+   * {@link PyOptimizer}. Nodes which don't override this method stay as they are.
+   *
+   * @param o the optimizer
+   */
+  PyStmt optimize(PyOptimizer o) {
+    return this;
+  }
+}
@@ -1,28 +1,51 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents the binary arithmetic subtract (-) operation, see 5.6.
- */
-public class PySubExpr extends PyBinaryExpr {
-
-  public PySubExpr(PyExpr left, PyExpr right) {
-    super(left, right);
-  }
-
-  @Override
-  protected String op() {
-    return "-";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    return left.eval(frame).sub(right.eval(frame));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyInt;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the binary arithmetic subtract (-) operation, see §5.6.
+ */
+public class PySubExpr extends PyBinaryExpr {
+
+  public PySubExpr(PyExpr left, PyExpr right) {
+    super(left, right);
+  }
+
+  @Override
+  protected String op() {
+    return "-";
+  }
+
+  @Override
+  protected int specialize(PyObject l, PyObject r) {
+    if (l instanceof PyInt && r instanceof PyInt) {
+      return INT;
+    }
+    return isFloat(l, r) ? FLOAT : GENERIC;
+  }
+
+  @Override
+  protected PyObject apply(PyObject l, PyObject r) {
+    return l.sub(r);
+  }
+
+  @Override
+  protected PyObject apply(int l, int r) {
+    return PyInt.minus(l, r);
+  }
+
+  @Override
+  protected PyObject apply(double l, double r) {
+    return PyObject.make(l - r);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    return compile(c, "sub");
+  }
+
+}
@@ -1,52 +1,122 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-/**
- * Represents a subscription, see 5.3.2.
- */
-public class PySubscription extends PyExpr {
-  private final PyExpr primary;
-  private final PyExprList expressions;
-
-  public PySubscription(PyExpr primary, PyExprList expressions) {
-    this.primary = primary;
-    this.expressions = expressions;
-  }
-
-  @Override
-  public String toString() {
-    return primary + "[" + expressions + "]";
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    PyObject key = expressions.eval(frame);
-    PyObject value = primary.eval(frame).getItem(key);
-    if (value == null) {
-      throw Py.keyError(key);
-    }
-    return value;
-  }
-
-  @Override
-  public boolean isTarget() {
-    return true;
-  }
-
-  @Override
-  public void assign(PyFrame frame, PyObject value) {
-    primary.eval(frame).setItem(expressions.eval(frame), value);
-  }
-
-  @Override
-  public void del(PyFrame frame) {
-    primary.eval(frame).delItem(expressions.eval(frame));
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.Py;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyInt;
+import sma.py.rt.PyList;
+import sma.py.rt.PyObject;
+import sma.py.rt.PyTuple;
+
+/**
+ * Represents a subscription, see §5.3.2.
+ * <p>
+ * Like binary operations, a subscription specializes itself on the first sequence and key it
+ * sees and indexes lists and tuples with integers directly until it sees other types.
+ */
+public class PySubscription extends PyExpr {
+  private static final int UNINITIALIZED = 0;
+  private static final int LIST = 1;
+  private static final int TUPLE = 2;
+  private static final int GENERIC = 3;
+
+  private final PyExpr primary;
+  private final PyExprList expressions;
+  private int state = UNINITIALIZED;
+
+  public PySubscription(PyExpr primary, PyExprList expressions) {
+    this.primary = primary;
+    this.expressions = expressions;
+  }
+
+  @Override
+  public String toString() {
+    return primary + "[" + expressions + "]";
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    expressions.optimize(o);
+    return this;
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    PyObject key = expressions.eval(frame);
+    PyObject object = primary.eval(frame);
+    int state = this.state;
+    if (state == UNINITIALIZED) {
+      this.state = state = specialize(object, key);
+    }
+    if (state == LIST) {
+      if (object instanceof PyList && key instanceof PyInt) {
+        PyList list = (PyList) object;
+        int index = ((PyInt) key).value();
+        if (index >= 0 && index < list.size()) {
+          return list.get(index);
+        }
+      } else {
+        this.state = GENERIC;
+      }
+    } else if (state == TUPLE) {
+      if (object instanceof PyTuple && key instanceof PyInt) {
+        PyTuple tuple = (PyTuple) object;
+        int index = ((PyInt) key).value();
+        if (index >= 0 && index < tuple.size()) {
+          return tuple.get(index);
+        }
+      } else {
+        this.state = GENERIC;
+      }
+    }
+    PyObject value = object.getItem(key);
+    if (value == null) {
+      throw Py.keyError(key);
+    }
+    return value;
+  }
+
+  private static int specialize(PyObject object, PyObject key) {
+    if (key instanceof PyInt) {
+      if (object instanceof PyList) {
+        return LIST;
+      }
+      if (object instanceof PyTuple) {
+        return TUPLE;
+      }
+    }
+    return GENERIC;
+  }
+
+  @Override
+  public boolean isTarget() {
+    return true;
+  }
+
+  @Override
+  public void assign(PyFrame frame, PyObject value) {
+    primary.eval(frame).setItem(expressions.eval(frame), value);
+  }
+
+  @Override
+  String compile(PyCompiler c) {
+    String key = expressions.compile(c);
+    String value = c.temp(primary.compile(c) + ".getItem(" + key + ")");
+    c.emit("if (" + value + " == null) throw Py.keyError(" + key + ");");
+    return value;
+  }
+
+  @Override
+  void compileAssign(PyCompiler c, String value) {
+    String primary = this.primary.compile(c);
+    c.emit(primary + ".setItem(" + expressions.compile(c) + ", " + value + ");");
+  }
+
+  @Override
+  public void del(PyFrame frame) {
+    primary.eval(frame).delItem(expressions.eval(frame));
+  }
+
+}
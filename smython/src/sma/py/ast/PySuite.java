@@ -1,43 +1,82 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-import sma.py.rt.PyObject;
-
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Represents a suite of statements, see 7.
- */
-public class PySuite extends PyStmt {
-  private final List<PyStmt> stmts = new ArrayList<PyStmt>();
-
-  public void add(PyStmt stmt) {
-    stmts.add(stmt);
-  }
-
-  @Override
-  public String toString() {
-    return list(stmts, ";");
-  }
-
-  @Override
-  public PyObject eval(PyFrame frame) {
-    PyObject result = PyObject.None;
-    for (PyStmt stmt : stmts) {
-      result = stmt.eval(frame);
-    }
-    return result;
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    for (PyStmt stmt : stmts) {
-      stmt.execute(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a suite of statements, see §7.
+ */
+public class PySuite extends PyStmt {
+  private final List<PyStmt> stmts = new ArrayList<PyStmt>();
+
+  public void add(PyStmt stmt) {
+    stmts.add(stmt);
+  }
+
+  @Override
+  public String toString() {
+    return list(stmts, ";");
+  }
+
+  @Override
+  public PyObject eval(PyFrame frame) {
+    PyObject result = PyObject.None;
+    for (PyStmt stmt : stmts) {
+      result = stmt.eval(frame);
+    }
+    return result;
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    for (PyStmt stmt : stmts) {
+      PyObject completion = stmt.execute(frame);
+      if (completion != null) {
+        return completion;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Optimizes the statements in place. Dropped statements are removed and statements replaced by
+   * suites are replaced by the suites' statements.
+   */
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    int size = stmts.size();
+    List<PyStmt> optimized = new ArrayList<PyStmt>(size);
+    PyStmt s = null;
+    for (PyStmt stmt : stmts) {
+      s = stmt.optimize(o);
+      if (s instanceof PySuite) {
+        optimized.addAll(((PySuite) s).stmts);
+      } else if (s != null) {
+        optimized.add(s);
+      }
+    }
+    // eval() returns the value of the last statement which must stay the same
+    if (size > 0 && s != stmts.get(size - 1) && !optimized.isEmpty()) {
+      if (!(optimized.get(optimized.size() - 1) instanceof PyPassStmt)) {
+        optimized.add(new PyPassStmt());
+      }
+    }
+    stmts.clear();
+    stmts.addAll(optimized);
+    return this;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    for (PyStmt stmt : stmts) {
+      stmt.compile(c);
+    }
+  }
+
+}
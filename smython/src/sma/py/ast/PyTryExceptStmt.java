@@ -1,47 +1,62 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-
-import java.util.List;
-
-/**
- * Represents the <code>try/except</code> statement, see 7.4.
- */
-public class PyTryExceptStmt extends PyStmt {
-  private final PySuite tryClause;
-  private final List<PyExceptClause> exceptClauses;
-  private final PySuite elseClause;
-
-  public PyTryExceptStmt(PySuite tryClause, List<PyExceptClause> exceptClauses, PySuite elseClause) {
-    this.tryClause = tryClause;
-    this.exceptClauses = exceptClauses;
-    this.elseClause = elseClause;
-  }
-
-  @Override
-  public String toString() {
-    return "try: " + tryClause + list(exceptClauses, "") + (elseClause != null ? " else:" + elseClause : "");
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    try {
-      tryClause.execute(frame);
-    } catch (Py.RaiseSignal s) {
-      for (PyExceptClause except : exceptClauses) {
-        if (except.execute(frame, s)) {
-          return;
-        }
-      }
-      throw s;
-    }
-    if (elseClause != null) {
-      elseClause.execute(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.Py;
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+import java.util.List;
+
+/**
+ * Represents the <code>try/except</code> statement, see §7.4.
+ */
+public class PyTryExceptStmt extends PyStmt {
+  private final PySuite tryClause;
+  private final List<PyExceptClause> exceptClauses;
+  private final PySuite elseClause;
+
+  public PyTryExceptStmt(PySuite tryClause, List<PyExceptClause> exceptClauses, PySuite elseClause) {
+    this.tryClause = tryClause;
+    this.exceptClauses = exceptClauses;
+    this.elseClause = elseClause;
+  }
+
+  @Override
+  public String toString() {
+    return "try: " + tryClause + list(exceptClauses, "") + (elseClause != null ? " else:" + elseClause : "");
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    tryClause.optimize(o);
+    for (PyExceptClause except : exceptClauses) {
+      except.optimize(o);
+    }
+    if (elseClause != null) {
+      elseClause.optimize(o);
+    }
+    return this;
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    PyObject completion;
+    try {
+      completion = tryClause.execute(frame);
+    } catch (Py.RaiseSignal s) {
+      for (PyExceptClause except : exceptClauses) {
+        if (except.matches(frame, s)) {
+          return except.execute(frame);
+        }
+      }
+      throw s;
+    }
+    if (completion == null && elseClause != null) {
+      completion = elseClause.execute(frame);
+    }
+    return completion;
+  }
+
+}
@@ -1,34 +1,53 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>try/finally</code> statement, see 7.4.
- */
-public class PyTryFinallyStmt extends PyStmt {
-  private final PySuite tryClause;
-  private final PySuite finallyClause;
-
-  public PyTryFinallyStmt(PySuite tryClause, PySuite finallyClause) {
-    this.tryClause = tryClause;
-    this.finallyClause = finallyClause;
-  }
-
-  @Override
-  public String toString() {
-    return "try: " + tryClause + " finally: " + finallyClause;
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    try {
-      tryClause.execute(frame);
-    } finally {
-      finallyClause.execute(frame);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>try/finally</code> statement, see §7.4.
+ */
+public class PyTryFinallyStmt extends PyStmt {
+  private final PySuite tryClause;
+  private final PySuite finallyClause;
+
+  public PyTryFinallyStmt(PySuite tryClause, PySuite finallyClause) {
+    this.tryClause = tryClause;
+    this.finallyClause = finallyClause;
+  }
+
+  @Override
+  public String toString() {
+    return "try: " + tryClause + " finally: " + finallyClause;
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    tryClause.optimize(o);
+    finallyClause.optimize(o);
+    return this;
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    PyObject completion = null;
+    boolean completed = false;
+    try {
+      completion = tryClause.execute(frame);
+      completed = true;
+    } finally {
+      if (!completed) {
+        // a break, continue or return in the finally clause discards the exception or error
+        PyObject finallyCompletion = finallyClause.execute(frame);
+        if (finallyCompletion != null) {
+          return finallyCompletion;
+        }
+      }
+    }
+    PyObject finallyCompletion = finallyClause.execute(frame);
+    return finallyCompletion != null ? finallyCompletion : completion;
+  }
+
+}
@@ -1,16 +1,29 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-/**
- * Abstract base class for unary operations.
- */
-public abstract class PyUnaryExpr extends PyExpr {
-  protected final PyExpr expr;
-
-  public PyUnaryExpr(PyExpr expr) {
-    this.expr = expr;
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+/**
+ * Abstract base class for unary operations.
+ */
+public abstract class PyUnaryExpr extends PyExpr {
+  protected PyExpr expr;
+
+  public PyUnaryExpr(PyExpr expr) {
+    this.expr = expr;
+  }
+
+  @Override
+  PyExpr optimize(PyOptimizer o) {
+    expr = expr.optimize(o);
+    return PyOptimizer.isLiteral(expr) ? o.fold(this) : this;
+  }
+
+  /**
+   * Emits Java code which evaluates the operand and applies the given {@code PyObject} method.
+   */
+  String compile(PyCompiler c, String method) {
+    return c.temp(expr.compile(c) + "." + method + "()");
+  }
+
+}
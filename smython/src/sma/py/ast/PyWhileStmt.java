@@ -1,44 +1,69 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.ast;
-
-import sma.py.rt.Py;
-import sma.py.rt.PyFrame;
-
-/**
- * Represents the <code>while</code> statement, see 7.2.
- */
-public class PyWhileStmt extends PyStmt {
-  private final PyExpr condition;
-  private final PySuite bodyClause;
-  private final PySuite elseClause;
-
-  public PyWhileStmt(PyExpr condition, PySuite bodyClause, PySuite elseClause) {
-    this.condition = condition;
-    this.bodyClause = bodyClause;
-    this.elseClause = elseClause;
-  }
-
-  @Override
-  public String toString() {
-    return "while " + condition + ": " + bodyClause + (elseClause != null ? " else: " + elseClause : "");
-  }
-
-  @Override
-  public void execute(PyFrame frame) {
-    while (condition.eval(frame).truth()) {
-      try {
-        bodyClause.execute(frame);
-      } catch (Py.BreakSignal s) {
-        return;
-      } catch (Py.ContinueSignal s) {
-        //noinspection UnnecessaryContinue
-        continue;
-      }
-    }
-    if (elseClause != null) {
-      elseClause.execute(frame);
-    }
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.ast;
+
+import sma.py.rt.PyFrame;
+import sma.py.rt.PyObject;
+
+/**
+ * Represents the <code>while</code> statement, see §7.2.
+ */
+public class PyWhileStmt extends PyStmt {
+  private PyExpr condition;
+  private final PySuite bodyClause;
+  private final PySuite elseClause;
+
+  public PyWhileStmt(PyExpr condition, PySuite bodyClause, PySuite elseClause) {
+    this.condition = condition;
+    this.bodyClause = bodyClause;
+    this.elseClause = elseClause;
+  }
+
+  @Override
+  public String toString() {
+    return "while " + condition + ": " + bodyClause + (elseClause != null ? " else: " + elseClause : "");
+  }
+
+  @Override
+  public PyObject execute(PyFrame frame) {
+    while (condition.evalTruth(frame)) {
+      PyObject completion = bodyClause.execute(frame);
+      if (completion != null && completion != CONTINUE) {
+        return completion == BREAK ? null : completion;
+      }
+    }
+    if (elseClause != null) {
+      return elseClause.execute(frame);
+    }
+    return null;
+  }
+
+  @Override
+  PyStmt optimize(PyOptimizer o) {
+    condition = condition.optimize(o);
+    bodyClause.optimize(o);
+    if (elseClause != null) {
+      elseClause.optimize(o);
+    }
+    if (PyOptimizer.isLiteral(condition) && !condition.eval(null).truth()) {
+      return elseClause;
+    }
+    return this;
+  }
+
+  @Override
+  void compile(PyCompiler c) {
+    int label = c.beginLoop();
+    c.begin("b" + label + ":");
+    c.begin("l" + label + ": while (true)");
+    c.emit("if (!(" + condition.compileTruth(c) + ")) break l" + label + ";");
+    bodyClause.compile(c);
+    c.end();
+    c.endLoop();
+    if (elseClause != null) {
+      elseClause.compile(c);
+    }
+    c.end();
+  }
+}
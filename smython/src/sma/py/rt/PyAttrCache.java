@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * An inline cache for the attribute lookups of one attribute reference. It remembers for up to
+ * {@link #SIZE} classes where in the class hierarchy the attribute was found. An entry is valid
+ * as long as the version stamp of its class doesn't change. Once the cache is full, lookups are
+ * no longer cached.
+ *
+ * @see sma.py.ast.PyAttrRef
+ */
+public final class PyAttrCache {
+  private static final int SIZE = 4;
+
+  private volatile Entry[] entries = new Entry[0];
+
+  /**
+   * Returns the attribute of the given class or one of its base classes or {@code null}
+   * if there is no such attribute.
+   */
+  PyObject lookup(PyClass clasz, PyString name) {
+    Entry[] entries = this.entries;
+    for (Entry e : entries) {
+      if (e.clasz == clasz) {
+        if (e.version == clasz.version) {
+          return e.value;
+        }
+        break;
+      }
+    }
+    int version = clasz.version;
+    PyObject value = clasz.getAttr0(name);
+    if (value != null && clasz.isCacheable()) {
+      update(entries, new Entry(clasz, version, value));
+    }
+    return value;
+  }
+
+  private void update(Entry[] entries, Entry entry) {
+    int length = entries.length;
+    for (int i = 0; i < length; i++) {
+      if (entries[i].clasz == entry.clasz) {
+        Entry[] newEntries = entries.clone();
+        newEntries[i] = entry;
+        this.entries = newEntries;
+        return;
+      }
+    }
+    if (length < SIZE) {
+      Entry[] newEntries = new Entry[length + 1];
+      System.arraycopy(entries, 0, newEntries, 0, length);
+      newEntries[length] = entry;
+      this.entries = newEntries;
+    }
+  }
+
+  private static final class Entry {
+    final PyClass clasz;
+    final int version;
+    final PyObject value;
+
+    Entry(PyClass clasz, int version, PyObject value) {
+      this.clasz = clasz;
+      this.version = version;
+      this.value = value;
+    }
+  }
+}
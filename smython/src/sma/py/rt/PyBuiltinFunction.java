@@ -1,7 +1,12 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-public class PyBuiltinFunction extends PyFunction {
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Abstract base class for functions implemented in Java. Subclasses override
+ * {@link #apply(PyFrame, PyTuple, PyDict)} and, for speed, the <code>invoke</code> methods for
+ * the numbers of positional arguments they expect.
+ */
+public class PyBuiltinFunction extends PyFunction {
+}
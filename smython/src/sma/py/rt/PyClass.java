@@ -1,116 +1,246 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-public class PyClass extends PyCallable {
-  private PyString name;
-  private PyTuple bases;
-  private PyDict dict;
-
-  public PyClass(PyString name, PyTuple bases, PyDict dict) {
-    this.name = name;
-    this.bases = bases;
-    this.dict = dict;
-  }
-
-  @Override
-  public String toString() {
-    return "<class " + name + ">"; 
-  }
-  
-  @Override
-  public PyObject getAttr(PyString name) {
-    PyObject value = getAttr0(name);
-    if (value == null) {
-      if (__NAME__.equals(name)) {
-        return name;
-      }
-      if (__BASES__.equals(name)) {
-        return bases;
-      }
-      if (__DICT__.equals(name)) {
-        return dict;
-      }
-      throw Py.attributeError(name);
-    }
-    if (value instanceof PyFunction) {
-      value = new PyMethod((PyFunction) value, null);
-    }
-    return value;
-  }
-
-  PyObject getAttr0(PyString name) {
-    PyObject value = dict.getItem(name);
-    if (value == null) {
-      for (PyObject b : bases) {
-        //XXX get rid of cast in next line
-        if ((value = ((PyClass) b).getAttr0(name)) != null) {
-          return value;
-        }
-      }
-    }
-    return value;
-  }
-
-  @Override
-  public void setAttr(PyString name, PyObject value) {
-    if (name.equals(__NAME__)) {
-      try {
-        this.name = (PyString) value;
-      } catch (ClassCastException e) {
-        throw Py.typeError("__name__ must be a string object");
-      }
-    } else if (name.equals(__BASES__)) {
-      try {
-        bases = (PyTuple) value;
-      } catch (ClassCastException e) {
-        throw Py.typeError("__bases__ must be a tuple object");
-      }
-    } else if (name.equals(__DICT__)) {
-      try {
-        dict = (PyDict) value;
-      } catch (ClassCastException e) {
-        throw Py.typeError("__dict__ must be a dictionary object");
-      }
-    } else {
-      dict.setItem(name, value);
-    }
-  }
-
-  @Override
-  public void delAttr(PyString name) {
-    dict.delItem(name); //TODO throw attribute error if attribute does not exist
-  }
-
-  @Override
-  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
-    PyInstance inst = new PyInstance(this);
-    inst.init(frame, positionalArguments, keywordArguments);
-    return inst;
-  }
-
-  @Override
-  public boolean exceptionType() {
-    return true;
-  }
-
-  @Override
-  public boolean exceptionMatches(PyObject object) {
-    if (object == this) {
-      return true;
-    }
-    if (object instanceof PyClass) {
-      for (PyObject c : ((PyClass) object).bases) {
-        if (exceptionMatches(c)) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
-  public boolean isInstance(PyObject object) {
-    return object instanceof PyInstance && exceptionMatches(((PyInstance) object).getClasz());
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a class.
+ * <p>
+ * Each class has a version stamp which is bumped whenever an attribute of the class or one of its
+ * base classes is set or deleted or its {@code __bases__} change. {@link PyAttrCache} uses the
+ * stamp to know when cached attribute lookups become invalid. If someone gets hold of the
+ * {@code __dict__} of a class, the class can change behind its back and isn't cached anymore.
+ */
+public class PyClass extends PyCallable {
+  private PyString name;
+  private PyTuple bases;
+  private PyDict dict;
+  private final List<WeakReference<PyClass>> subclasses = new ArrayList<WeakReference<PyClass>>(0);
+  int version;
+  private boolean exposed;
+  final PyShape shape = new PyShape(); // the shape of new instances
+
+  public PyClass(PyString name, PyTuple bases, PyDict dict) {
+    this.name = name;
+    this.bases = bases;
+    this.dict = dict;
+    register();
+  }
+
+  private void register() {
+    for (PyObject b : bases) {
+      if (b instanceof PyClass) {
+        List<WeakReference<PyClass>> subclasses = ((PyClass) b).subclasses;
+        synchronized (subclasses) {
+          subclasses.add(new WeakReference<PyClass>(this));
+        }
+      }
+    }
+  }
+
+  /**
+   * Bumps the version stamp of this class and all of its subclasses.
+   */
+  private void changed() {
+    version++;
+    synchronized (subclasses) {
+      for (int i = subclasses.size() - 1; i >= 0; i--) {
+        PyClass c = subclasses.get(i).get();
+        if (c == null) {
+          subclasses.remove(i);
+        } else {
+          c.changed();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns whether lookups in this class may be cached, that is, neither the dictionary of this
+   * class nor of one of its base classes has been exposed.
+   */
+  boolean isCacheable() {
+    if (exposed) {
+      return false;
+    }
+    for (PyObject b : bases) {
+      if (b instanceof PyClass && !((PyClass) b).isCacheable()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "<class " + name + ">"; 
+  }
+  
+  @Override
+  public PyObject getAttr(PyString name) {
+    return getAttr(name, null);
+  }
+
+  @Override
+  public PyObject getAttr(PyString name, PyAttrCache cache) {
+    PyObject value = cache != null ? cache.lookup(this, name) : getAttr0(name);
+    if (value == null) {
+      if (__NAME__.equals(name)) {
+        return name;
+      }
+      if (__BASES__.equals(name)) {
+        return bases;
+      }
+      if (__DICT__.equals(name)) {
+        if (!exposed) {
+          exposed = true;
+          changed();
+        }
+        return dict;
+      }
+      throw Py.attributeError(name);
+    }
+    if (value instanceof PyFunction) {
+      value = new PyMethod((PyFunction) value, null);
+    }
+    return value;
+  }
+
+  PyObject getAttr0(PyString name) {
+    PyObject value = dict.getItem(name);
+    if (value == null) {
+      for (PyObject b : bases) {
+        //XXX get rid of cast in next line
+        if ((value = ((PyClass) b).getAttr0(name)) != null) {
+          return value;
+        }
+      }
+    }
+    return value;
+  }
+
+  @Override
+  public void setAttr(PyString name, PyObject value) {
+    if (name.equals(__NAME__)) {
+      try {
+        this.name = (PyString) value;
+      } catch (ClassCastException e) {
+        throw Py.typeError("__name__ must be a string object");
+      }
+    } else if (name.equals(__BASES__)) {
+      try {
+        bases = (PyTuple) value;
+      } catch (ClassCastException e) {
+        throw Py.typeError("__bases__ must be a tuple object");
+      }
+      register();
+    } else if (name.equals(__DICT__)) {
+      try {
+        dict = (PyDict) value;
+      } catch (ClassCastException e) {
+        throw Py.typeError("__dict__ must be a dictionary object");
+      }
+      exposed = true;
+    } else {
+      dict.setItem(name, value);
+    }
+    changed();
+  }
+
+  @Override
+  public void delAttr(PyString name) {
+    dict.delItem(name); //TODO throw attribute error if attribute does not exist
+    changed();
+  }
+
+  @Override
+  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+    PyInstance inst = new PyInstance(this);
+    inst.init(frame, positionalArguments, keywordArguments);
+    return inst;
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame) {
+    PyInstance inst = new PyInstance(this);
+    PyObject init = getInit(0);
+    if (init != null) {
+      init.invoke(frame, inst);
+    }
+    return inst;
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0) {
+    PyInstance inst = new PyInstance(this);
+    getInit(1).invoke(frame, inst, arg0);
+    return inst;
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1) {
+    PyInstance inst = new PyInstance(this);
+    getInit(2).invoke(frame, inst, arg0, arg1);
+    return inst;
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1, PyObject arg2) {
+    PyInstance inst = new PyInstance(this);
+    getInit(3).invoke(frame, new PyObject[]{inst, arg0, arg1, arg2});
+    return inst;
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject[] arguments) {
+    PyInstance inst = new PyInstance(this);
+    PyObject init = getInit(arguments.length);
+    if (init != null) {
+      PyObject[] narguments = new PyObject[arguments.length + 1];
+      narguments[0] = inst;
+      System.arraycopy(arguments, 0, narguments, 1, arguments.length);
+      init.invoke(frame, narguments);
+    }
+    return inst;
+  }
+
+  /**
+   * Returns the <code>__init__</code> method for the given number of arguments or {@code null}
+   * if there is no such method and no arguments.
+   */
+  PyObject getInit(int count) {
+    PyObject init = getAttr0(S__INIT__);
+    if (init == null && count > 0) {
+      throw Py.typeError("constructor takes no arguments");
+    }
+    return init;
+  }
+
+  @Override
+  public boolean exceptionType() {
+    return true;
+  }
+
+  @Override
+  public boolean exceptionMatches(PyObject object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof PyClass) {
+      for (PyObject c : ((PyClass) object).bases) {
+        if (exceptionMatches(c)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  public boolean isInstance(PyObject object) {
+    return object instanceof PyInstance && exceptionMatches(((PyInstance) object).getClasz());
+  }
+}
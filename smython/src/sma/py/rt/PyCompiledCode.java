@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Abstract base class for function bodies which have been compiled into JVM classes.
+ * Compiled code works on the same frame as the interpreter so both can be mixed freely.
+ *
+ * @see sma.py.ast.PyCompiler
+ */
+public abstract class PyCompiledCode {
+  /**
+   * Executes the function body in the context of the given frame, whose slots already contain
+   * the function's arguments, and returns the function's result.
+   *
+   * @param frame the function's frame
+   * @return the result of the function
+   */
+  public abstract PyObject execute(PyFrame frame);
+}
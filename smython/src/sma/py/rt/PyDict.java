@@ -1,130 +1,485 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-
-public class PyDict extends PyMapping {
-  private final Map<PyObject, PyObject> dict;
-  
-  public PyDict() {
-    this(new HashMap<PyObject, PyObject>());
-  }
-
-  public PyDict(int capacity) {
-    this(new HashMap<PyObject, PyObject>(capacity));
-  }
-
-  public PyDict(Map<PyObject,PyObject> dict) {
-    this.dict = dict;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    return this == obj || obj instanceof PyDict && dict.equals(((PyDict) obj).dict);
-  }
-
-  @Override
-  public int hashCode() {
-    return dict.hashCode();
-  }
-
-  @Override
-  public String toString() {
-    StringBuilder b = new StringBuilder();
-    b.append('{');
-    if (dict.size() > 0) {
-      List<PyObject> keys = new ArrayList<PyObject>(dict.keySet());
-      Collections.sort(keys);
-      boolean first = true;
-      for (PyObject key : keys) {
-        if (first) {
-          first = false;
-        } else {
-          b.append(", ");
-        }
-        b.append(key);
-        b.append(": ");
-        b.append(dict.get(key));
-      }
-    }
-    b.append('}');
-    return b.toString();
-  }
-
-  public int size() {
-    return dict.size();
-  }
-
-  public PyObject get(PyObject key) {
-    return dict.get(key);
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject len() {
-    return make(dict.size());
-  }
-
-  @Override
-  public PyObject getItem(PyObject key) {
-    return dict.get(key);
-  }
-
-  @Override
-  public void setItem(PyObject key, PyObject value) {
-    dict.put(key, value);
-  }
-
-  @Override
-  public void delItem(PyObject key) {
-    if (dict.remove(key) == null) {
-      throw Py.keyError(key);
-    }
-  }
-
-  @Override
-  public boolean hasItem(PyObject key) {
-    return dict.containsKey(key);
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject getAttr(PyString name) {
-    String n = name.value();
-    if ("has_key".equals(n)) {
-      return new PyBuiltinFunction() {
-        @Override
-        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
-          return PyDict.this.hasItem(positionalArguments.get(0)) ? True : False;
-        }
-      };
-    }
-    return super.getAttr(name);
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyIterator iter() {
-    return new PyIterator() {
-      private Iterator<Map.Entry<PyObject, PyObject>> iterator = dict.entrySet().iterator();
-
-      public PyObject next() {
-        if (iterator.hasNext()) {
-          Map.Entry<PyObject, PyObject> entry = iterator.next();
-          return new PyTuple(entry.getKey(), entry.getValue());
-        }
-        return null;
-      }
-    };
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents dictionaries.
+ * <p>
+ * Keys, values and their hash codes are stored in parallel arrays in insertion order; deleted
+ * entries leave holes until the table is resized. An open addressing table of indices into these
+ * arrays is probed like in CPython. Keys are compared by identity first, so interned strings
+ * are found without calling {@code equals()}. As long as all keys are strings, the dictionary
+ * knows that no other key can be found and compares keys as strings only.
+ * <p>
+ * Dictionaries with at most {@value #SMALL_SIZE} entries, like most keyword arguments, instance
+ * and function dictionaries, have no index table; their keys are searched linearly. Such a
+ * dictionary switches to an index table for good once it grows beyond that. Empty dictionaries
+ * allocate no arrays at all.
+ */
+public class PyDict extends PyMapping {
+  private static final int SMALL_SIZE = 8; // entries searched linearly
+  private static final int MIN_SIZE = 16; // of the index table, must be a power of two
+  private static final int FREE = -1;
+  private static final int DELETED = -2;
+
+  private static final int[] NO_HASHES = new int[0];
+  private static final PyObject[] NO_OBJECTS = new PyObject[0];
+
+  private int[] indices; // FREE, DELETED or an index into the entry arrays, null if small
+  private int[] hashes;
+  private PyObject[] keys; // null for deleted entries
+  private PyObject[] values;
+  private int used; // number of entries including deleted ones
+  private int size; // number of entries excluding deleted ones
+  private boolean strings = true; // whether all keys are strings
+  int version; // changes whenever the dictionary changes, see PyGlobalCell
+
+  public PyDict() {
+    this(0);
+  }
+
+  public PyDict(int capacity) {
+    if (capacity <= SMALL_SIZE) {
+      allocateSmall(capacity);
+    } else {
+      allocate(tableSize(capacity));
+    }
+  }
+
+  /**
+   * Returns the size of an index table which can hold the given number of entries.
+   */
+  private static int tableSize(int capacity) {
+    int n = MIN_SIZE;
+    while (entrySize(n) < capacity) {
+      n <<= 1;
+    }
+    return n;
+  }
+
+  // the index table is kept at most two thirds full
+  private static int entrySize(int tableSize) {
+    return tableSize * 2 / 3;
+  }
+
+  private void allocateSmall(int capacity) {
+    if (capacity == 0) {
+      hashes = NO_HASHES;
+      keys = NO_OBJECTS;
+      values = NO_OBJECTS;
+    } else {
+      hashes = new int[capacity];
+      keys = new PyObject[capacity];
+      values = new PyObject[capacity];
+    }
+  }
+
+  private void allocate(int tableSize) {
+    indices = new int[tableSize];
+    Arrays.fill(indices, FREE);
+    int n = entrySize(tableSize);
+    hashes = new int[n];
+    keys = new PyObject[n];
+    values = new PyObject[n];
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof PyDict)) {
+      return false;
+    }
+    PyDict other = (PyDict) obj;
+    if (size != other.size) {
+      return false;
+    }
+    for (int i = 0; i < used; i++) {
+      PyObject key = keys[i];
+      if (key != null) {
+        int index = other.lookup(key, hashes[i]);
+        if (index == -1 || !values[i].equals(other.values[index])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 0;
+    for (int i = 0; i < used; i++) {
+      if (keys[i] != null) {
+        h += hashes[i] ^ values[i].hashCode();
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder b = new StringBuilder();
+    b.append('{');
+    if (size > 0) {
+      List<PyObject> keys = new ArrayList<PyObject>(size);
+      for (int i = 0; i < used; i++) {
+        if (this.keys[i] != null) {
+          keys.add(this.keys[i]);
+        }
+      }
+      Collections.sort(keys);
+      boolean first = true;
+      for (PyObject key : keys) {
+        if (first) {
+          first = false;
+        } else {
+          b.append(", ");
+        }
+        b.append(key);
+        b.append(": ");
+        b.append(get(key));
+      }
+    }
+    b.append('}');
+    return b.toString();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public PyObject get(PyObject key) {
+    int index = lookup(key, key.hashCode());
+    return index != -1 ? values[index] : null;
+  }
+
+  /**
+   * Returns the index of the first entry at or after the given index or -1 if there is none.
+   * Together with {@link #keyAt(int)} and {@link #valueAt(int)} this iterates over the
+   * dictionary in insertion order without creating objects. Indices become invalid if the
+   * dictionary grows.
+   */
+  public int nextIndex(int index) {
+    while (index < used) {
+      if (keys[index] != null) {
+        return index;
+      }
+      index++;
+    }
+    return -1;
+  }
+
+  public PyObject keyAt(int index) {
+    return keys[index];
+  }
+
+  public PyObject valueAt(int index) {
+    return values[index];
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // hash table
+
+  /**
+   * Returns the index of the entry for the given key or -1 if there is no such entry.
+   */
+  private int lookup(PyObject key, int hash) {
+    if (strings) {
+      return key instanceof PyString ? lookupString((PyString) key, hash) : -1;
+    }
+    int[] indices = this.indices;
+    if (indices == null) {
+      for (int index = 0; index < used; index++) {
+        PyObject k = keys[index];
+        if (k == key || k != null && hashes[index] == hash && k.equals(key)) {
+          return index;
+        }
+      }
+      return -1;
+    }
+    int mask = indices.length - 1;
+    int i = hash & mask;
+    for (int perturb = hash; ; perturb >>>= 5) {
+      int index = indices[i];
+      if (index == FREE) {
+        return -1;
+      }
+      if (index != DELETED) {
+        PyObject k = keys[index];
+        if (k == key || hashes[index] == hash && k.equals(key)) {
+          return index;
+        }
+      }
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+  }
+
+  private int lookupString(PyString key, int hash) {
+    int[] indices = this.indices;
+    if (indices == null) {
+      for (int index = 0; index < used; index++) {
+        PyObject k = keys[index];
+        if (k == key || k != null && hashes[index] == hash && key.equals(k)) {
+          return index;
+        }
+      }
+      return -1;
+    }
+    int mask = indices.length - 1;
+    int i = hash & mask;
+    for (int perturb = hash; ; perturb >>>= 5) {
+      int index = indices[i];
+      if (index == FREE) {
+        return -1;
+      }
+      if (index != DELETED) {
+        PyObject k = keys[index];
+        if (k == key || hashes[index] == hash && key.equals(k)) {
+          return index;
+        }
+      }
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+  }
+
+  /**
+   * Returns the slot of the index table for the given entry.
+   */
+  private int slotOf(int index) {
+    int[] indices = this.indices;
+    int mask = indices.length - 1;
+    int hash = hashes[index];
+    int i = hash & mask;
+    for (int perturb = hash; indices[i] != index; perturb >>>= 5) {
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * Stores the index of a new entry in the first free or deleted slot for the given hash.
+   */
+  private void insertIndex(int hash, int index) {
+    int[] indices = this.indices;
+    int mask = indices.length - 1;
+    int i = hash & mask;
+    for (int perturb = hash; indices[i] >= 0; perturb >>>= 5) {
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+    indices[i] = index;
+  }
+
+  /**
+   * Drops deleted entries and makes room for twice as many entries as there are, creating the
+   * index table if a small dictionary would become too large.
+   */
+  private void resize() {
+    int[] oldHashes = hashes;
+    PyObject[] oldKeys = keys;
+    PyObject[] oldValues = values;
+    int oldUsed = used;
+    if (indices == null && size < SMALL_SIZE) {
+      allocateSmall(Math.min(Math.max(size * 2, 2), SMALL_SIZE));
+    } else {
+      allocate(tableSize(size * 2));
+    }
+    int n = 0;
+    for (int i = 0; i < oldUsed; i++) {
+      PyObject key = oldKeys[i];
+      if (key != null) {
+        hashes[n] = oldHashes[i];
+        keys[n] = key;
+        values[n] = oldValues[i];
+        if (indices != null) {
+          insertIndex(oldHashes[i], n);
+        }
+        n++;
+      }
+    }
+    used = n;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return make(size);
+  }
+
+  @Override
+  public PyObject getItem(PyObject key) {
+    return get(key);
+  }
+
+  @Override
+  public void setItem(PyObject key, PyObject value) {
+    int hash = key.hashCode();
+    int index = lookup(key, hash);
+    if (index != -1) {
+      if (values[index] != value) {
+        values[index] = value;
+        version++;
+      }
+      return;
+    }
+    if (used == keys.length) {
+      resize();
+    }
+    if (!(key instanceof PyString)) {
+      strings = false;
+    }
+    index = used++;
+    hashes[index] = hash;
+    keys[index] = key;
+    values[index] = value;
+    if (indices != null) {
+      insertIndex(hash, index);
+    }
+    size++;
+    version++;
+  }
+
+  @Override
+  public void delItem(PyObject key) {
+    int index = lookup(key, key.hashCode());
+    if (index == -1) {
+      throw Py.keyError(key);
+    }
+    if (indices != null) {
+      indices[slotOf(index)] = DELETED;
+    }
+    keys[index] = null;
+    values[index] = null;
+    size--;
+    version++;
+  }
+
+  /**
+   * Invalidates all values cached from this dictionary, for example because it has been replaced
+   * by another dictionary.
+   */
+  void invalidate() {
+    version++;
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    return lookup(key, key.hashCode()) != -1;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject getAttr(PyString name) {
+    String n = name.value();
+    if ("has_key".equals(n)) {
+      return new PyBuiltinFunction() {
+        @Override
+        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+          return PyDict.this.hasItem(positionalArguments.get(0)) ? True : False;
+        }
+      };
+    }
+    if ("keys".equals(n)) {
+      return list(PyDictView.KEYS);
+    }
+    if ("values".equals(n)) {
+      return list(PyDictView.VALUES);
+    }
+    if ("items".equals(n)) {
+      return list(PyDictView.ITEMS);
+    }
+    if ("iterkeys".equals(n)) {
+      return view(PyDictView.KEYS);
+    }
+    if ("itervalues".equals(n)) {
+      return view(PyDictView.VALUES);
+    }
+    if ("iteritems".equals(n)) {
+      return view(PyDictView.ITEMS);
+    }
+    return super.getAttr(name);
+  }
+
+  private PyObject list(final int kind) {
+    return new PyBuiltinFunction() {
+      @Override
+      public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+        PyObject[] objects = new PyObject[size];
+        for (int i = nextIndex(0), n = 0; i != -1; i = nextIndex(i + 1)) {
+          objects[n++] = get(kind, i);
+        }
+        return new PyList(objects);
+      }
+    };
+  }
+
+  private PyObject view(final int kind) {
+    return new PyBuiltinFunction() {
+      @Override
+      public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+        return new PyDictView(PyDict.this, kind);
+      }
+    };
+  }
+
+  /**
+   * Returns the key, the value or both as a tuple of the given entry.
+   */
+  PyObject get(int kind, int index) {
+    switch (kind) {
+    case PyDictView.KEYS:
+      return keys[index];
+    case PyDictView.VALUES:
+      return values[index];
+    default:
+      return PyTuple.of(keys[index], values[index]);
+    }
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyIterator iter() {
+    return iter(PyDictView.ITEMS);
+  }
+
+  /**
+   * Returns an iterator over the keys, values or items which walks the entries without copying
+   * them, see {@link PyDictView}.
+   */
+  PyIterator iter(final int kind) {
+    return new PyIterator() {
+      private final int expectedSize = size;
+      private int index;
+
+      public PyObject next() {
+        checkSize(expectedSize);
+        index = nextIndex(index);
+        if (index == -1) {
+          index = Integer.MAX_VALUE; // stays at the end
+          return null;
+        }
+        return get(kind, index++);
+      }
+    };
+  }
+
+  /**
+   * Raises a <code>RuntimeError</code> if the dictionary doesn't have the given size anymore.
+   * Called while iterating because adding entries invalidates their indices.
+   */
+  public void checkSize(int expectedSize) {
+    if (size != expectedSize) {
+      throw Py.raise(intern("RuntimeError"), make("dictionary changed size during iteration"));
+    }
+  }
+}
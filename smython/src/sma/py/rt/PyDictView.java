@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Represents the keys, values or items of a dictionary as returned by <code>iterkeys()</code>,
+ * <code>itervalues()</code> and <code>iteritems()</code>. A view doesn't copy the dictionary;
+ * iterating it walks the dictionary's entries and reflects all changes made before. Only items
+ * are returned as new tuples.
+ */
+public class PyDictView extends PyObject {
+  public static final int KEYS = 0;
+  public static final int VALUES = 1;
+  public static final int ITEMS = 2;
+
+  private final PyDict dict;
+  private final int kind;
+
+  public PyDictView(PyDict dict, int kind) {
+    this.dict = dict;
+    this.kind = kind;
+  }
+
+  public PyDict getDict() {
+    return dict;
+  }
+
+  public int getKind() {
+    return kind;
+  }
+
+  @Override
+  public String toString() {
+    return "<dictionary-" + (kind == KEYS ? "key" : kind == VALUES ? "value" : "item") + "iterator>";
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return dict.len();
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    if (kind == KEYS) {
+      return dict.hasItem(key);
+    }
+    if (kind == ITEMS) {
+      if (key instanceof PyTuple && ((PyTuple) key).size() == 2) {
+        PyObject value = dict.get(((PyTuple) key).get(0));
+        return value != null && value.equals(((PyTuple) key).get(1));
+      }
+      return false;
+    }
+    for (int i = dict.nextIndex(0); i != -1; i = dict.nextIndex(i + 1)) {
+      if (dict.valueAt(i).equals(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public PyIterator iter() {
+    return dict.iter(kind);
+  }
+
+  @Override
+  public boolean truth() {
+    return dict.size() != 0;
+  }
+}
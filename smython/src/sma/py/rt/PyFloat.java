@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Represents floating point numbers, backed by a Java {@code double}. Ints and longs are converted
+ * to floats if mixed with floats; the int and long methods delegate to the reflected methods of
+ * this class, e.g. {@code 1 + 2.5} calls {@link #radd(PyObject)}.
+ */
+public class PyFloat extends PyNumber {
+  private final double value;
+
+  PyFloat(double value) {
+    this.value = value;
+  }
+
+  public double value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof PyFloat) {
+      return value == ((PyFloat) obj).value;
+    }
+    return obj instanceof PyNumber && eq((PyNumber) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    // floats which are equal to ints or longs hash like those numbers
+    if (value == Math.rint(value) && !Double.isInfinite(value)) {
+      if (Math.abs(value) < 0x1p63) {
+        return PyLong.hash((long) value);
+      }
+      return new BigDecimal(value).toBigInteger().hashCode();
+    }
+    long bits = Double.doubleToLongBits(value);
+    return (int) (bits ^ (bits >>> 32));
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (this == o) {
+      return 0;
+    }
+    if (o instanceof PyNumber) {
+      return compare(value, o.as_double());
+    }
+    return super.compareTo(o);
+  }
+
+  static int compare(double l, double r) {
+    return l < r ? -1 : l > r ? 1 : 0;
+  }
+
+  /**
+   * Returns the shortest representation which reads back as the same value.
+   */
+  @Override
+  public String toString() {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return format(null);
+    }
+    return format(new BigDecimal(Double.toString(value)));
+  }
+
+  /**
+   * Returns the value rounded to 12 significant digits.
+   */
+  @Override
+  public PyString str() {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return make(format(null));
+    }
+    return make(format(new BigDecimal(value).round(new MathContext(12))));
+  }
+
+  /**
+   * Formats like Python: positional notation for exponents from -4 to 15 with at least one digit
+   * after the decimal point, scientific notation otherwise.
+   */
+  private String format(BigDecimal d) {
+    if (Double.isNaN(value)) {
+      return "nan";
+    }
+    if (Double.isInfinite(value)) {
+      return value > 0 ? "inf" : "-inf";
+    }
+    if (d.signum() == 0) {
+      return 1 / value < 0 ? "-0.0" : "0.0";
+    }
+    d = d.stripTrailingZeros();
+    String digits = d.unscaledValue().abs().toString();
+    int exponent = digits.length() - 1 - d.scale();
+    StringBuilder b = new StringBuilder();
+    if (d.signum() < 0) {
+      b.append('-');
+    }
+    if (exponent < -4 || exponent > 15) {
+      b.append(digits.charAt(0));
+      if (digits.length() > 1) {
+        b.append('.').append(digits, 1, digits.length());
+      }
+      b.append(exponent < 0 ? "e-" : "e+");
+      if (Math.abs(exponent) < 10) {
+        b.append('0');
+      }
+      b.append(Math.abs(exponent));
+    } else {
+      b.append(d.abs().toPlainString());
+      if (d.scale() <= 0) {
+        b.append(".0");
+      }
+    }
+    return b.toString();
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // common API
+
+  @Override
+  public PyInt cmp(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(compare(value, other.as_double()));
+    }
+    return super.cmp(other);
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    // not compareTo() because nan is equal to nothing
+    if (other instanceof PyLong) {
+      return ((PyLong) other).eq(value);
+    }
+    return other instanceof PyNumber && value == other.as_double();
+  }
+
+  @Override
+  public PyInt nonzero() {
+    return value != 0 ? True : False;
+  }
+
+  @Override
+  public PyObject coerce(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(this, make(other.as_double()));
+    }
+    return super.coerce(other);
+  }
+
+  @Override
+  public PyObject toFloat() {
+    return this;
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // arithmetic API
+
+  @Override
+  public PyObject add(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value + other.as_double());
+    }
+    return super.add(other);
+  }
+
+  @Override
+  public PyObject radd(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(other.as_double() + value);
+    }
+    return super.radd(other);
+  }
+
+  @Override
+  public PyObject sub(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value - other.as_double());
+    }
+    return super.sub(other);
+  }
+
+  @Override
+  public PyObject rsub(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(other.as_double() - value);
+    }
+    return super.rsub(other);
+  }
+
+  @Override
+  public PyObject mul(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value * other.as_double());
+    }
+    return super.mul(other);
+  }
+
+  @Override
+  public PyObject rmul(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(other.as_double() * value);
+    }
+    return super.rmul(other);
+  }
+
+  @Override
+  public PyObject div(PyObject other) {
+    if (other instanceof PyNumber) {
+      return divide(value, other.as_double());
+    }
+    return super.div(other);
+  }
+
+  @Override
+  public PyObject rdiv(PyObject other) {
+    if (other instanceof PyNumber) {
+      return divide(other.as_double(), value);
+    }
+    return super.rdiv(other);
+  }
+
+  @Override
+  public PyObject mod(PyObject other) {
+    if (other instanceof PyNumber) {
+      return modulo(value, other.as_double());
+    }
+    return super.mod(other);
+  }
+
+  @Override
+  public PyObject rmod(PyObject other) {
+    if (other instanceof PyNumber) {
+      return modulo(other.as_double(), value);
+    }
+    return super.rmod(other);
+  }
+
+  public static PyFloat divide(double l, double r) {
+    if (r == 0) {
+      throw Py.raise(intern("ZeroDivisionError"), make("float division"));
+    }
+    return make(l / r);
+  }
+
+  /**
+   * Returns the remainder which has the same sign as the divisor.
+   */
+  public static PyFloat modulo(double l, double r) {
+    if (r == 0) {
+      throw Py.raise(intern("ZeroDivisionError"), make("float modulo"));
+    }
+    double m = l % r;
+    if (m != 0 && (m < 0 != r < 0)) {
+      m += r;
+    }
+    return make(m);
+  }
+
+  @Override
+  public PyObject pow(PyObject other) {
+    if (other instanceof PyNumber) {
+      double r = other.as_double();
+      if (value < 0 && r != Math.floor(r)) {
+        throw Py.valueError("negative number cannot be raised to a fractional power");
+      }
+      if (value == 0 && r < 0) {
+        throw Py.raise(intern("ZeroDivisionError"), make("0.0 cannot be raised to a negative power"));
+      }
+      double result = Math.pow(value, r);
+      if (Double.isInfinite(result) && !Double.isInfinite(value) && !Double.isInfinite(r)) {
+        throw Py.raise(intern("OverflowError"), make("float power"));
+      }
+      return make(result);
+    }
+    return super.pow(other);
+  }
+
+  @Override
+  public PyObject abs() {
+    return value < 0 ? make(-value) : this;
+  }
+
+  @Override
+  public PyObject neg() {
+    return make(-value);
+  }
+
+  // ----------------------------------------------------------------------------------------------
+
+  @Override
+  protected double as_double() {
+    return value;
+  }
+
+  @Override
+  protected BigInteger as_bigint() {
+    return new BigDecimal(value).toBigInteger();
+  }
+
+  @Override
+  public boolean truth() {
+    return value != 0;
+  }
+}
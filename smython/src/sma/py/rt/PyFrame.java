@@ -1,139 +1,292 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-/**
- * Provides an execution context for {@code PyNode}s.
- */
-public class PyFrame extends PyObject {
-  private final PyFrame back;
-  private final PyDict locals;
-  private final PyDict globals;
-
-  private static final PyString F_BACK = intern("f_back");
-  private static final PyString F_LOCALS = intern("f_locals");
-  private static final PyString F_GLOBALS = intern("f_globals");
-  private static final PyString S__BUILTINS__ = intern("__builtins__");
-
-  /**
-   * Constructs the initial execution context. There is no "back" context and both locals and
-   * globals share the same dictionary.
-   */
-  public PyFrame() {
-    this(null, null, null);
-  }
-
-  /**
-   * Constructs a new execution context. If "back" is {@code null}, a global context is created.
-   * Otherwise a nested context is created which normally shares the dictionary for global variables
-   * with its ancestor.
-   */
-  public PyFrame(PyFrame back, PyDict locals, PyDict globals) {
-    this.back = back;
-    if (locals == null) {
-      this.locals = this.globals = new PyDict();
-    } else {
-      this.locals = locals;
-      this.globals = globals;
-    }
-  }
-
-  public PyDict getLocals() {
-    return locals;
-  }
-
-  public PyDict getGlobals() {
-    return globals;
-  }
-
-  public PyDict getBuiltins() {
-    PyObject value = globals.getItem(S__BUILTINS__);
-    if (value instanceof PyModule) {
-      return ((PyModule) value).getDict();
-    }
-    try {
-      return (PyDict) value;
-    } catch (ClassCastException e) {
-      throw Py.typeError("bad __builtins__ dictionary");
-    }
-  }
-
-  @Override
-  public PyObject getAttr(PyString name) {
-    if (name == F_BACK) {
-      return back != null ? back : None;
-    }
-    if (name == F_LOCALS) {
-      return locals;
-    }
-    if (name == F_GLOBALS) {
-      return globals;
-    }
-    throw Py.attributeError(name);
-  }
-
-  /**
-   * Returns the value of a local variable (if defined) or global or built-in variable.
-   * If no such variable exists, a <code>NameError</code> is raised.
-   */
-  public PyObject getLocal(PyString name) {
-    PyObject value = locals.getItem(name);
-    if (value == null) {
-      value = getGlobal(name);
-    }
-    return value;
-  }
-
-  /**
-   * Updates or creates a local variable. This may shadow a global variable.
-   */
-  public void setLocal(PyString name, PyObject value) {
-    locals.setItem(name, value);
-  }
-
-  /**
-   * Deletes an existing local variable.
-   * If no such variable exists, a <code>NameError</code> is raised.
-   */
-  public void delLocal(PyString name) {
-    if (!locals.hasItem(name)) {
-      throw Py.nameError(name);
-    }
-    locals.delItem(name);
-  }
-
-  /**
-   * Return the value of a global or built-in variable.
-   * If no such variable exists, a <code>NameError</code> is raised.
-   */
-  public PyObject getGlobal(PyString name) {
-    PyObject value = globals.getItem(name);
-    if (value == null) {
-      value = getBuiltins().getItem(name);
-      if (value == null) {
-        throw Py.nameError(name);
-      }
-    }
-    return value;
-  }
-
-  /**
-   * Updates or creates a global variable. This may shadow a built-in variable.
-   */
-  public void setGlobal(PyString name, PyObject value) {
-    globals.setItem(name, value);
-  }
-
-  /**
-   * Deletes an existing global variable. Built-in variables cannot be deleted.
-   * If no such variable exists, a <code>NameError</code> is raised.
-   */
-  public void delGlobal(PyString name) {
-    if (!globals.hasItem(name)) {
-      throw Py.nameError(name);
-    }
-    globals.delItem(name);
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Provides an execution context for {@code PyNode}s.
+ */
+public class PyFrame extends PyObject {
+  private final PyFrame back;
+  private PyDict locals;
+  private final PyDict globals;
+  private final PyString[] varnames;
+  private final PyObject[] slots;
+
+  private static final PyString F_BACK = intern("f_back");
+  private static final PyString F_LOCALS = intern("f_locals");
+  private static final PyString F_GLOBALS = intern("f_globals");
+  private static final PyString S__BUILTINS__ = intern("__builtins__");
+
+  /**
+   * Constructs the initial execution context. There is no "back" context and both locals and
+   * globals share the same dictionary.
+   */
+  public PyFrame() {
+    this(null, (PyDict) null, null);
+  }
+
+  /**
+   * Constructs a new execution context. If "back" is {@code null}, a global context is created.
+   * Otherwise a nested context is created which normally shares the dictionary for global variables
+   * with its ancestor.
+   */
+  public PyFrame(PyFrame back, PyDict locals, PyDict globals) {
+    this.back = back;
+    if (locals == null) {
+      this.locals = this.globals = new PyDict();
+    } else {
+      this.locals = locals;
+      this.globals = globals;
+    }
+    this.varnames = null;
+    this.slots = null;
+  }
+
+  /**
+   * Constructs a new execution context for a function. Local variables are stored in slots which
+   * are indexed by their position in the given array of variable names. A dictionary for local
+   * variables is only created if somebody asks for it.
+   */
+  public PyFrame(PyFrame back, PyString[] varnames, PyDict globals) {
+    this.back = back;
+    this.globals = globals;
+    this.varnames = varnames;
+    this.slots = new PyObject[varnames.length];
+  }
+
+  /**
+   * Returns the dictionary of local variables. For functions, the dictionary is a snapshot of
+   * the current slot values which is refreshed on each call. Use {@link #syncLocals()} to copy
+   * changes made to the dictionary back into the slots.
+   */
+  public PyDict getLocals() {
+    if (slots != null) {
+      if (locals == null) {
+        locals = new PyDict();
+      }
+      for (int i = 0; i < slots.length; i++) {
+        PyString name = varnames[i];
+        if (name != null) {
+          if (slots[i] != null) {
+            locals.setItem(name, slots[i]);
+          } else if (locals.hasItem(name)) {
+            locals.delItem(name);
+          }
+        }
+      }
+    }
+    return locals;
+  }
+
+  /**
+   * Copies the values of the dictionary returned by {@link #getLocals()} back into the slots,
+   * for example after an {@code exec} statement was executed with that dictionary.
+   */
+  public void syncLocals() {
+    if (slots != null && locals != null) {
+      for (int i = 0; i < slots.length; i++) {
+        PyString name = varnames[i];
+        if (name != null) {
+          slots[i] = locals.getItem(name);
+        }
+      }
+    }
+  }
+
+  public PyDict getGlobals() {
+    return globals;
+  }
+
+  public PyDict getBuiltins() {
+    PyObject value = globals.getItem(S__BUILTINS__);
+    if (value instanceof PyModule) {
+      return ((PyModule) value).getDict();
+    }
+    try {
+      return (PyDict) value;
+    } catch (ClassCastException e) {
+      throw Py.typeError("bad __builtins__ dictionary");
+    }
+  }
+
+  @Override
+  public PyObject getAttr(PyString name) {
+    if (name == F_BACK) {
+      return back != null ? back : None;
+    }
+    if (name == F_LOCALS) {
+      return getLocals();
+    }
+    if (name == F_GLOBALS) {
+      return globals;
+    }
+    throw Py.attributeError(name);
+  }
+
+  /**
+   * Returns the value of a local variable (if defined) or global or built-in variable.
+   * If no such variable exists, a <code>NameError</code> is raised.
+   */
+  public PyObject getLocal(PyString name) {
+    int index = slotIndex(name);
+    if (index != -1) {
+      return getFast(index, name);
+    }
+    PyObject value = locals != null ? locals.getItem(name) : null;
+    if (value == null) {
+      value = getGlobal(name);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of a local variable like {@link #getLocal(PyString)} but uses the given
+   * cell to cache global or built-in variables.
+   */
+  public PyObject getLocal(PyString name, PyGlobalCell cell) {
+    if (locals != globals) {
+      int index = slotIndex(name);
+      if (index != -1) {
+        return getFast(index, name);
+      }
+      PyObject value = locals != null ? locals.getItem(name) : null;
+      if (value != null) {
+        return value;
+      }
+    }
+    return getGlobal(name, cell);
+  }
+
+  /**
+   * Updates or creates a local variable. This may shadow a global variable.
+   */
+  public void setLocal(PyString name, PyObject value) {
+    int index = slotIndex(name);
+    if (index != -1) {
+      slots[index] = value;
+      return;
+    }
+    if (locals == null) {
+      locals = new PyDict();
+    }
+    locals.setItem(name, value);
+  }
+
+  /**
+   * Deletes an existing local variable.
+   * If no such variable exists, a <code>NameError</code> is raised.
+   */
+  public void delLocal(PyString name) {
+    int index = slotIndex(name);
+    if (index != -1) {
+      delFast(index, name);
+      return;
+    }
+    if (locals == null || !locals.hasItem(name)) {
+      throw Py.nameError(name);
+    }
+    locals.delItem(name);
+  }
+
+  /**
+   * Returns the value of the local variable stored in the given slot or, if that variable has
+   * no value, the value of the global or built-in variable of the given name.
+   * If no such variable exists, a <code>NameError</code> is raised.
+   */
+  public PyObject getFast(int index, PyString name) {
+    PyObject value = slots[index];
+    if (value == null) {
+      value = getGlobal(name);
+    }
+    return value;
+  }
+
+  /**
+   * Updates the local variable stored in the given slot.
+   */
+  public void setFast(int index, PyObject value) {
+    slots[index] = value;
+  }
+
+  /**
+   * Deletes the local variable stored in the given slot.
+   * If that variable has no value, a <code>NameError</code> is raised.
+   */
+  public void delFast(int index, PyString name) {
+    if (slots[index] == null) {
+      throw Py.nameError(name);
+    }
+    slots[index] = null;
+  }
+
+  private int slotIndex(PyString name) {
+    if (varnames != null) {
+      for (int i = 0; i < varnames.length; i++) {
+        if (name.equals(varnames[i])) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Return the value of a global or built-in variable.
+   * If no such variable exists, a <code>NameError</code> is raised.
+   */
+  public PyObject getGlobal(PyString name) {
+    PyObject value = globals.getItem(name);
+    if (value == null) {
+      value = getBuiltins().getItem(name);
+      if (value == null) {
+        throw Py.nameError(name);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of a global or built-in variable like {@link #getGlobal(PyString)} but
+   * caches the value in the given cell until the global or built-in variables change.
+   */
+  public PyObject getGlobal(PyString name, PyGlobalCell cell) {
+    PyObject value = cell.get(globals);
+    if (value != null) {
+      return value;
+    }
+    int globalsVersion = globals.version;
+    value = globals.getItem(name);
+    if (value != null) {
+      cell.set(globals, globalsVersion, null, 0, value);
+      return value;
+    }
+    PyDict builtins = getBuiltins();
+    int builtinsVersion = builtins.version;
+    value = builtins.getItem(name);
+    if (value == null) {
+      throw Py.nameError(name);
+    }
+    cell.set(globals, globalsVersion, builtins, builtinsVersion, value);
+    return value;
+  }
+
+  /**
+   * Updates or creates a global variable. This may shadow a built-in variable.
+   */
+  public void setGlobal(PyString name, PyObject value) {
+    globals.setItem(name, value);
+  }
+
+  /**
+   * Deletes an existing global variable. Built-in variables cannot be deleted.
+   * If no such variable exists, a <code>NameError</code> is raised.
+   */
+  public void delGlobal(PyString name) {
+    if (!globals.hasItem(name)) {
+      throw Py.nameError(name);
+    }
+    globals.delItem(name);
+  }
+
+}
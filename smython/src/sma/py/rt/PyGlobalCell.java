@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Caches the value of a global or built-in variable for one identifier. The cached value stays
+ * valid as long as neither the dictionary of global variables nor the dictionary of built-in
+ * variables it was found in change, which is detected by their version counters.
+ *
+ * @see PyFrame#getGlobal(PyString, PyGlobalCell)
+ */
+public final class PyGlobalCell {
+  private volatile Entry entry;
+
+  PyObject get(PyDict globals) {
+    Entry e = entry;
+    if (e != null && e.globals == globals && e.globalsVersion == globals.version) {
+      if (e.builtins == null || e.builtinsVersion == e.builtins.version) {
+        return e.value;
+      }
+    }
+    return null;
+  }
+
+  void set(PyDict globals, int globalsVersion, PyDict builtins, int builtinsVersion, PyObject value) {
+    entry = new Entry(globals, globalsVersion, builtins, builtinsVersion, value);
+  }
+
+  private static final class Entry {
+    final PyDict globals;
+    final int globalsVersion;
+    final PyDict builtins; // null if the value was found in the globals
+    final int builtinsVersion;
+    final PyObject value;
+
+    Entry(PyDict globals, int globalsVersion, PyDict builtins, int builtinsVersion, PyObject value) {
+      this.globals = globals;
+      this.globalsVersion = globalsVersion;
+      this.builtins = builtins;
+      this.builtinsVersion = builtinsVersion;
+      this.value = value;
+    }
+  }
+}
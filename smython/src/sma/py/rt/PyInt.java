@@ -1,244 +1,343 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import java.math.BigInteger;
-
-public class PyInt extends PyNumber {
-  private final int value;
-
-  PyInt(int value) {
-    this.value = value;
-  }
-
-  public int value() {
-    return value;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    return obj instanceof PyInt && value == ((PyInt) obj).value;
-  }
-
-  @Override
-  public int hashCode() {
-    return value;
-  }
-
-  @Override
-  public int compareTo(PyObject o) {
-    if (this == o) {
-      return 0;
-    }
-    if (o instanceof PyInt) {
-      return value - ((PyInt) o).value;
-    }
-    if (o instanceof PyLong) {
-      return as_bigint().compareTo(o.as_bigint());
-    }
-    return super.compareTo(o);
-  }
-
-  @Override
-  public String toString() {
-    return String.valueOf(value);
-  }
-
-  // ----------------------------------------------------------------------------------------------
-  // common API
-
-  @Override
-  public PyInt cmp(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value - ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().compareTo(other.as_bigint()));
-    }
-    return super.cmp(other);
-  }
-
-  @Override
-  public PyInt nonzero() {
-    return value == 0 ? this : True;
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-  // arithmetic API
-
-  @Override
-  public PyObject add(PyObject other) {
-    if (other instanceof PyInt) {
-      return make((long) value + ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().add(other.as_bigint()));
-    }
-    return super.add(other);
-  }
-
-  @Override
-  public PyObject sub(PyObject other) {
-    if (other instanceof PyInt) {
-      return make((long) value - ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().subtract(other.as_bigint()));
-    }
-    return super.sub(other);
-  }
-
-  @Override
-  public PyObject mul(PyObject other) {
-    if (other instanceof PyInt) {
-      return make((long) value * ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().multiply(other.as_bigint()));
-    }
-    return super.mul(other);
-  }
-
-  @Override
-  public PyObject div(PyObject other) {
-    try {
-      if (other instanceof PyInt) {
-        long v = (long) value;
-        long o = ((PyInt) other).value;
-        if (v < 0) {
-          if (o > 0) {
-            v -= o - 1;
-          }
-        } else {
-          if (o < 0) {
-            v -= o + 1;
-          }
-        }
-        return make(v / o);
-      }
-      if (other instanceof PyLong) {
-        return make(PyLong.pydiv(as_bigint(), other.as_bigint()));
-      }
-      return super.div(other);
-    } catch (ArithmeticException e) {
-      throw Py.raise(intern("ZeroDivisionError"), None);
-    }
-  }
-
-  @Override
-  public PyObject mod(PyObject other) {
-    try {
-      if (other instanceof PyInt) {
-        long v = (long) value;
-        long o = ((PyInt) other).value;
-        if (v < 0 ^ o < 0) {
-          v += o;
-        }
-        return make(v % o);
-      }
-      if (other instanceof PyLong) {
-        return make(PyLong.pymod(as_bigint(), other.as_bigint()));
-      }
-      return super.mod(other);
-    } catch (ArithmeticException e) {
-      throw Py.raise(intern("ZeroDivisionError"), None);
-    }
-  }
-
-  @Override
-  public PyObject pow(PyObject other) {
-    BigInteger i = as_bigint().pow(other.as_int());
-    return makeIntOrLong(i);
-  }
-
-  @Override
-  public PyObject lshift(PyObject other) {
-    int n = other.as_int();
-    if (n < 0) {
-      return make(value >> -n);
-    }
-    if (n == 0) {
-      return this;
-    }
-    return makeIntOrLong(as_bigint().shiftLeft(n));
-  }
-
-  @Override
-  public PyObject rshift(PyObject other) {
-    int n = other.as_int();
-    if (n < 0) {
-      return makeIntOrLong(as_bigint().shiftLeft(-n));
-    }
-    if (n == 0) {
-      return this;
-    }
-    return make(value >> n);
-  }
-
-  @Override
-  public PyObject and(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value & ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().and(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-
-  @Override
-  public PyObject xor(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value ^ ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().xor(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-
-  @Override
-  public PyObject or(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value | ((PyInt) other).value);
-    }
-    if (other instanceof PyLong) {
-      return make(as_bigint().or(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-
-  @Override
-  public PyObject abs() {
-    return value < 0 ? neg() : this;
-  }
-
-  @Override
-  public PyObject neg() {
-    return value == Integer.MIN_VALUE ? make(-(long) value) : make(-value);
-  }
-
-  @Override
-  public PyObject invert() {
-    return make(~value);
-  }
-
-  // ----------------------------------------------------------------------------------------------
-
-  @Override
-  protected int as_int() {
-    return value;
-  }
-
-  @Override
-  protected BigInteger as_bigint() {
-    return BigInteger.valueOf(value);
-  }
-
-  @Override
-  public boolean truth() {
-    return value != 0;
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.math.BigInteger;
+
+public class PyInt extends PyNumber {
+  private final int value;
+
+  PyInt(int value) {
+    this.value = value;
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof PyInt) {
+      return value == ((PyInt) obj).value;
+    }
+    // equal longs and floats hash like this int, so they are the same dictionary key
+    return obj instanceof PyNumber && eq((PyNumber) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return value;
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (this == o) {
+      return 0;
+    }
+    if (o instanceof PyInt) {
+      return compare(value, ((PyInt) o).value);
+    }
+    if (o instanceof PyLong) {
+      return as_bigint().compareTo(o.as_bigint());
+    }
+    if (o instanceof PyFloat) {
+      return PyFloat.compare(value, ((PyFloat) o).value());
+    }
+    return super.compareTo(o);
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(value);
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // common API
+
+  @Override
+  public PyInt cmp(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(compare(value, ((PyInt) other).value));
+    }
+    if (other instanceof PyLong) {
+      return make(as_bigint().compareTo(other.as_bigint()));
+    }
+    if (other instanceof PyFloat) {
+      return make(PyFloat.compare(value, ((PyFloat) other).value()));
+    }
+    return super.cmp(other);
+  }
+
+  private static int compare(int l, int r) {
+    return l < r ? -1 : l == r ? 0 : 1;
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    if (other instanceof PyInt) {
+      return value == ((PyInt) other).value;
+    }
+    if (other instanceof PyFloat) {
+      return value == ((PyFloat) other).value();
+    }
+    return other instanceof PyNumber && compareTo(other) == 0;
+  }
+
+  @Override
+  public boolean lt(PyObject other) {
+    return other instanceof PyInt ? value < ((PyInt) other).value : compareTo(other) < 0;
+  }
+
+  @Override
+  public boolean le(PyObject other) {
+    return other instanceof PyInt ? value <= ((PyInt) other).value : compareTo(other) <= 0;
+  }
+
+  @Override
+  public boolean gt(PyObject other) {
+    return other instanceof PyInt ? value > ((PyInt) other).value : compareTo(other) > 0;
+  }
+
+  @Override
+  public boolean ge(PyObject other) {
+    return other instanceof PyInt ? value >= ((PyInt) other).value : compareTo(other) >= 0;
+  }
+
+  @Override
+  public PyInt nonzero() {
+    return value == 0 ? this : True;
+  }
+
+  @Override
+  public PyObject coerce(PyObject other) {
+    if (other instanceof PyFloat) {
+      return make(make((double) value), other);
+    }
+    return super.coerce(other);
+  }
+
+  @Override
+  public PyObject toFloat() {
+    return make((double) value);
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // arithmetic API
+
+  @Override
+  public PyObject add(PyObject other) {
+    if (other instanceof PyInt) {
+      return plus(value, ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return PyLong.plus(value, (PyLong) other);
+    }
+    return super.add(other);
+  }
+
+  @Override
+  public PyObject sub(PyObject other) {
+    if (other instanceof PyInt) {
+      return minus(value, ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return PyLong.minus(value, (PyLong) other);
+    }
+    return super.sub(other);
+  }
+
+  @Override
+  public PyObject mul(PyObject other) {
+    if (other instanceof PyInt) {
+      return times(value, ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return PyLong.times(value, (PyLong) other);
+    }
+    return super.mul(other);
+  }
+
+  /**
+   * Returns the sum of two ints, a long if it overflows.
+   */
+  public static PyNumber plus(int l, int r) {
+    int result = l + r;
+    if (((l ^ result) & (r ^ result)) < 0) {
+      return new PyLong((long) l + r);
+    }
+    return make(result);
+  }
+
+  /**
+   * Returns the difference of two ints, a long if it overflows.
+   */
+  public static PyNumber minus(int l, int r) {
+    int result = l - r;
+    if (((l ^ r) & (l ^ result)) < 0) {
+      return new PyLong((long) l - r);
+    }
+    return make(result);
+  }
+
+  /**
+   * Returns the product of two ints, a long if it overflows.
+   */
+  public static PyNumber times(int l, int r) {
+    long result = (long) l * r;
+    if ((int) result != result) {
+      return new PyLong(result);
+    }
+    return make((int) result);
+  }
+
+  @Override
+  public PyObject div(PyObject other) {
+    try {
+      if (other instanceof PyInt) {
+        long v = (long) value;
+        long o = ((PyInt) other).value;
+        if (v < 0) {
+          if (o > 0) {
+            v -= o - 1;
+          }
+        } else {
+          if (o < 0) {
+            v -= o + 1;
+          }
+        }
+        return make(v / o);
+      }
+      if (other instanceof PyLong) {
+        return make(PyLong.pydiv(as_bigint(), other.as_bigint()));
+      }
+      return super.div(other);
+    } catch (ArithmeticException e) {
+      throw Py.raise(intern("ZeroDivisionError"), None);
+    }
+  }
+
+  @Override
+  public PyObject mod(PyObject other) {
+    try {
+      if (other instanceof PyInt) {
+        long v = (long) value;
+        long o = ((PyInt) other).value;
+        if (v < 0 ^ o < 0) {
+          v += o;
+        }
+        return make(v % o);
+      }
+      if (other instanceof PyLong) {
+        return make(PyLong.pymod(as_bigint(), other.as_bigint()));
+      }
+      return super.mod(other);
+    } catch (ArithmeticException e) {
+      throw Py.raise(intern("ZeroDivisionError"), None);
+    }
+  }
+
+  @Override
+  public PyObject pow(PyObject other) {
+    if (other instanceof PyFloat || other instanceof PyNumber && other.as_bigint().signum() < 0) {
+      return toFloat().pow(other);
+    }
+    BigInteger i = as_bigint().pow(other.as_int());
+    return makeIntOrLong(i);
+  }
+
+  @Override
+  public PyObject lshift(PyObject other) {
+    int n = other.as_int();
+    if (n < 0) {
+      return make(value >> -n);
+    }
+    if (n == 0) {
+      return this;
+    }
+    return makeIntOrLong(as_bigint().shiftLeft(n));
+  }
+
+  @Override
+  public PyObject rshift(PyObject other) {
+    int n = other.as_int();
+    if (n < 0) {
+      return makeIntOrLong(as_bigint().shiftLeft(-n));
+    }
+    if (n == 0) {
+      return this;
+    }
+    return make(value >> n);
+  }
+
+  @Override
+  public PyObject and(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(value & ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return make(as_bigint().and(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+
+  @Override
+  public PyObject xor(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(value ^ ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return make(as_bigint().xor(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+
+  @Override
+  public PyObject or(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(value | ((PyInt) other).value);
+    }
+    if (other instanceof PyLong) {
+      return make(as_bigint().or(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+
+  @Override
+  public PyObject abs() {
+    return value < 0 ? neg() : this;
+  }
+
+  @Override
+  public PyObject neg() {
+    return value == Integer.MIN_VALUE ? make(-(long) value) : make(-value);
+  }
+
+  @Override
+  public PyObject invert() {
+    return make(~value);
+  }
+
+  // ----------------------------------------------------------------------------------------------
+
+  @Override
+  protected int as_int() {
+    return value;
+  }
+
+  @Override
+  protected BigInteger as_bigint() {
+    return BigInteger.valueOf(value);
+  }
+
+  @Override
+  protected double as_double() {
+    return value;
+  }
+
+  @Override
+  public boolean truth() {
+    return value != 0;
+  }
+
+}
@@ -1,257 +1,433 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
-
-public class PyList extends PySeq {
-  private final List<PyObject> list;
-
-  public PyList() {
-    this(new ArrayList<PyObject>());
-  }
-
-  public PyList(int capacity) {
-    this(new ArrayList<PyObject>(capacity));
-  }
-
-  public PyList(PyObject... elements) {
-    this(elements.length);
-    list.addAll(Arrays.asList((PyObject[]) elements));
-  }
-
-  public PyList(List<PyObject> list) {
-    this.list = list;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    return this == obj || (obj instanceof PyList && list.equals(((PyList) obj).list));
-  }
-
-  @Override
-  public int hashCode() {
-    return list.hashCode();
-  }
-
-  @Override
-  public int compareTo(PyObject o) {
-    if (this == o) {
-      return 0;
-    }
-    if (o instanceof PyList) {
-      int len1 = list.size();
-      int len2 = ((PyList) o).list.size();
-      // TODO implement comparison of lists... but how?
-      return len1 - len2;
-    }
-    return super.compareTo(o);
-  }
-
-  @Override
-  public String toString() {
-    StringBuilder b = new StringBuilder();
-    b.append('[');
-    for (int i = 0; i < list.size(); i++) {
-      if (i > 0) {
-        b.append(", ");
-      }
-      b.append(list.get(i));
-    }
-    b.append(']');
-    return b.toString();
-  }
-
-  public int size() {
-    return list.size();
-  }
-
-  public PyObject get(int index) {
-    return list.get(index);
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject len() {
-    return make(list.size());
-  }
-
-  @Override
-  public PyObject getItem(PyObject key) {
-    int index = key.as_int();
-    if (index < 0) {
-      index += list.size();
-    }
-    try {
-      return list.get(index);
-    } catch (IndexOutOfBoundsException e) {
-      throw Py.indexError(key);
-    }
-  }
-
-  @Override
-  public void setItem(PyObject key, PyObject value) {
-    int index = key.as_int();
-    if (index < 0) {
-      index += list.size();
-    }
-    try {
-      list.set(index, value);
-    } catch (IndexOutOfBoundsException e) {
-      throw Py.indexError(key);
-    }
-  }
-
-  @Override
-  public void delItem(PyObject key) {
-    int index = key.as_int();
-    if (index < 0) {
-      index += list.size();
-    }
-    try {
-      list.remove(index);
-    } catch (IndexOutOfBoundsException e) {
-      throw Py.indexError(key);
-    }
-  }
-
-  @Override
-  public boolean hasItem(PyObject key) {
-    return list.contains(key);
-  }
-
-  @Override
-  public PyObject getSlice(PyObject left, PyObject right) {
-    int length = list.size();
-    int leftIndex = left.as_int();
-    if (leftIndex < 0) {
-      leftIndex += length;
-      if (leftIndex < 0) {
-        leftIndex = 0;
-      }
-    } else if (leftIndex > length) {
-      leftIndex = length;
-    }
-    int rightIndex = right.as_int();
-    if (rightIndex < 0) {
-      rightIndex += length;
-      if (rightIndex < 0) {
-        rightIndex = 0;
-      }
-    } else if (rightIndex > length) {
-      rightIndex = length;
-    }
-    if (rightIndex - leftIndex < 1) {
-      return new PyList();
-    }
-    return new PyList(list.subList(leftIndex, rightIndex));
-  }
-
-  @Override
-  public void setSlice(PyObject left, PyObject right, PyObject value) {
-    int length = list.size();
-    int leftIndex = left.as_int();
-    if (leftIndex < 0) {
-      leftIndex += length;
-      if (leftIndex < 0) {
-        leftIndex = 0;
-      }
-    } else if (leftIndex > length) {
-      leftIndex = length;
-    }
-    int rightIndex = right.as_int();
-    if (rightIndex < 0) {
-      rightIndex += length;
-      if (rightIndex < 0) {
-        rightIndex = 0;
-      }
-    } else if (rightIndex > length) {
-      rightIndex = length;
-    }
-    int count = rightIndex - leftIndex;
-    if (count >= length) {
-      list.clear();
-    } else {
-      while (count-- > 0) {
-        list.remove(leftIndex);
-      }
-    }
-    PyIterator iter = value.iter();
-    PyObject obj;
-    while ((obj = iter.next()) != null) {
-      list.add(leftIndex, obj);
-    }
-  }
-
-  @Override
-  public void delSlice(PyObject left, PyObject right) {
-    int length = list.size();
-    int leftIndex = left.as_int();
-    if (leftIndex < 0) {
-      leftIndex += length;
-      if (leftIndex < 0) {
-        leftIndex = 0;
-      }
-    } else if (leftIndex > length) {
-      leftIndex = length;
-    }
-    int rightIndex = right.as_int();
-    if (rightIndex < 0) {
-      rightIndex += length;
-      if (rightIndex < 0) {
-        rightIndex = 0;
-      }
-    } else if (rightIndex > length) {
-      rightIndex = length;
-    }
-    int count = rightIndex - leftIndex;
-    if (count >= length) {
-      list.clear();
-    } else {
-      while (count-- > 0) {
-        list.remove(leftIndex);
-      }
-    }
-  }
-
-  @Override
-  public PyIterator iter() {
-    return new PyIterator() {
-      private Iterator<PyObject> iterator = list.iterator();
-      public PyObject next() {
-        if (iterator.hasNext()) {
-          return iterator.next();
-        }
-        return null;
-      }
-    };
-  }
-
-  public List<PyObject> list() {
-    return list;
-  }
-
-  public void append(PyObject object) {
-    list.add(object);
-  }
-
-  @Override
-  public PyObject getAttr(PyString name) {
-    String n = name.value();
-    if ("append".equals(n)) {
-      return new PyBuiltinFunction() {
-        @Override
-        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
-          append(positionalArguments.get(0));
-          return None;
-        }
-      };
-    }
-    return super.getAttr(name);
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Represents lists. Elements are stored according to a {@link PyListStrategy}: lists of ints
+ * and lists of floats store them unboxed, other lists store objects.
+ * <p>
+ * A slice shares the storage of its list and copies its elements only before it is changed.
+ * The list copies its elements before it changes one of them, too, but may still append in place
+ * because no slice can see elements beyond its size. Short slices are copied right away.
+ */
+public class PyList extends PySeq {
+  private static final int MIN_SLICE_LENGTH = 16;
+
+  private PyListStrategy strategy;
+  private Object storage;
+  private int offset;
+  private int size;
+  /** Whether the storage belongs to another list this list is a slice of. */
+  private boolean view;
+  /** Whether slices of this list share its storage. */
+  private boolean sliced;
+
+  public PyList() {
+    this.strategy = PyListStrategy.EMPTY;
+  }
+
+  /**
+   * Constructs a list of the given elements. The array is owned by the list.
+   */
+  public PyList(PyObject... elements) {
+    this();
+    int length = elements.length;
+    if (length > 0) {
+      PyListStrategy strategy = PyListStrategy.of(elements);
+      if (strategy == PyListStrategy.OBJECTS) {
+        this.storage = elements;
+      } else {
+        this.storage = strategy.allocate(length);
+        for (int i = 0; i < length; i++) {
+          strategy.set(storage, i, elements[i]);
+        }
+      }
+      this.strategy = strategy;
+      this.size = length;
+    }
+  }
+
+  PyList(PyListStrategy strategy, Object storage, int size) {
+    this.strategy = size > 0 ? strategy : PyListStrategy.EMPTY;
+    this.storage = size > 0 ? storage : null;
+    this.size = size;
+  }
+
+  private PyList(PyListStrategy strategy, Object storage, int offset, int size) {
+    this.strategy = strategy;
+    this.storage = storage;
+    this.offset = offset;
+    this.size = size;
+    this.view = true;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof PyList) {
+      PyList other = (PyList) obj;
+      if (size != other.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (!get(i).equals(other.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+    for (int i = 0; i < size; i++) {
+      h = 31 * h + get(i).hashCode();
+    }
+    return h;
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    if (this == other) {
+      return true;
+    }
+    if (other instanceof PyList) {
+      PyList list = (PyList) other;
+      if (size != list.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (!get(i).eq(list.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (this == o) {
+      return 0;
+    }
+    if (o instanceof PyList) {
+      int len1 = size;
+      int len2 = ((PyList) o).size;
+      // TODO implement comparison of lists... but how?
+      return len1 - len2;
+    }
+    return super.compareTo(o);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder b = new StringBuilder();
+    b.append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        b.append(", ");
+      }
+      b.append(get(i));
+    }
+    b.append(']');
+    return b.toString();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public PyObject get(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException();
+    }
+    return strategy.get(storage, offset + index);
+  }
+
+  /**
+   * Returns the elements as a new array.
+   */
+  public PyObject[] toArray() {
+    PyObject[] objects = new PyObject[size];
+    for (int i = 0; i < size; i++) {
+      objects[i] = strategy.get(storage, offset + i);
+    }
+    return objects;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // storage
+
+  /**
+   * Copies the elements if the storage is shared with other lists, before it gets changed.
+   */
+  private void modify() {
+    if (view || sliced) {
+      Object storage = strategy.allocate(Math.max(size, 4));
+      System.arraycopy(this.storage, offset, storage, 0, size);
+      this.storage = storage;
+      offset = 0;
+      view = false;
+      sliced = false;
+    }
+  }
+
+  /**
+   * Stores the value at the given index which must be less than the capacity.
+   */
+  private void set(int index, PyObject value) {
+    modify();
+    if (!strategy.accepts(value)) {
+      generalize(value);
+    }
+    strategy.set(storage, index, value);
+  }
+
+  /**
+   * Switches to a strategy which accepts all of the given values, that is, to the object strategy
+   * unless the list is empty.
+   */
+  private void generalize(PyObject... values) {
+    PyListStrategy strategy = size == 0 ? PyListStrategy.of(values) : PyListStrategy.OBJECTS;
+    Object storage = strategy.allocate(Math.max(this.strategy.capacity(this.storage), 4));
+    for (int i = 0; i < size; i++) {
+      strategy.set(storage, i, this.strategy.get(this.storage, offset + i));
+    }
+    this.strategy = strategy;
+    this.storage = storage;
+    offset = 0;
+    view = false;
+    sliced = false;
+  }
+
+  private void ensureCapacity(int capacity) {
+    int oldCapacity = strategy.capacity(storage);
+    if (capacity > oldCapacity) {
+      Object storage = strategy.allocate(Math.max(capacity, oldCapacity * 2));
+      System.arraycopy(this.storage, 0, storage, 0, size);
+      this.storage = storage;
+      sliced = false;
+    }
+  }
+
+  /**
+   * Inserts the given values at the given index.
+   */
+  private void insert(int index, PyObject[] values) {
+    modify();
+    int count = values.length;
+    for (PyObject value : values) {
+      if (!strategy.accepts(value)) {
+        generalize(values);
+        break;
+      }
+    }
+    ensureCapacity(size + count);
+    System.arraycopy(storage, index, storage, index + count, size - index);
+    for (int i = 0; i < count; i++) {
+      strategy.set(storage, index + i, values[i]);
+    }
+    size += count;
+  }
+
+  /**
+   * Removes the elements from the first index up to but not including the second index.
+   */
+  private void remove(int from, int to) {
+    modify();
+    System.arraycopy(storage, to, storage, from, size - to);
+    strategy.clear(storage, size - (to - from), size);
+    size -= to - from;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return make(size);
+  }
+
+  @Override
+  public PyObject getItem(PyObject key) {
+    int index = key.as_int();
+    if (index < 0) {
+      index += size;
+    }
+    if (index < 0 || index >= size) {
+      throw Py.indexError(key);
+    }
+    return strategy.get(storage, offset + index);
+  }
+
+  @Override
+  public void setItem(PyObject key, PyObject value) {
+    int index = key.as_int();
+    if (index < 0) {
+      index += size;
+    }
+    if (index < 0 || index >= size) {
+      throw Py.indexError(key);
+    }
+    set(index, value);
+  }
+
+  @Override
+  public void delItem(PyObject key) {
+    int index = key.as_int();
+    if (index < 0) {
+      index += size;
+    }
+    if (index < 0 || index >= size) {
+      throw Py.indexError(key);
+    }
+    remove(index, index + 1);
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    return strategy.indexOf(storage, offset, offset + size, key) != -1;
+  }
+
+  @Override
+  public PyObject getSlice(PyObject left, PyObject right) {
+    int length = size;
+    int leftIndex = left.as_int();
+    if (leftIndex < 0) {
+      leftIndex += length;
+      if (leftIndex < 0) {
+        leftIndex = 0;
+      }
+    } else if (leftIndex > length) {
+      leftIndex = length;
+    }
+    int rightIndex = right.as_int();
+    if (rightIndex < 0) {
+      rightIndex += length;
+      if (rightIndex < 0) {
+        rightIndex = 0;
+      }
+    } else if (rightIndex > length) {
+      rightIndex = length;
+    }
+    if (rightIndex - leftIndex < 1) {
+      return new PyList();
+    }
+    length = rightIndex - leftIndex;
+    if (length < MIN_SLICE_LENGTH || length < strategy.capacity(storage) / 4) {
+      Object storage = strategy.allocate(length);
+      System.arraycopy(this.storage, offset + leftIndex, storage, 0, length);
+      return new PyList(strategy, storage, length);
+    }
+    sliced = true;
+    return new PyList(strategy, storage, offset + leftIndex, length);
+  }
+
+  @Override
+  public void setSlice(PyObject left, PyObject right, PyObject value) {
+    int length = size;
+    int leftIndex = left.as_int();
+    if (leftIndex < 0) {
+      leftIndex += length;
+      if (leftIndex < 0) {
+        leftIndex = 0;
+      }
+    } else if (leftIndex > length) {
+      leftIndex = length;
+    }
+    int rightIndex = right.as_int();
+    if (rightIndex < 0) {
+      rightIndex += length;
+      if (rightIndex < 0) {
+        rightIndex = 0;
+      }
+    } else if (rightIndex > length) {
+      rightIndex = length;
+    }
+    PyObject[] values = value instanceof PyList ? ((PyList) value).toArray() : toArray(value.iter());
+    if (rightIndex > leftIndex) {
+      remove(leftIndex, rightIndex);
+    }
+    insert(leftIndex, values);
+  }
+
+  private static PyObject[] toArray(PyIterator iterator) {
+    PyList list = new PyList();
+    PyObject obj;
+    while ((obj = iterator.next()) != null) {
+      list.append(obj);
+    }
+    return list.toArray();
+  }
+
+  @Override
+  public void delSlice(PyObject left, PyObject right) {
+    int length = size;
+    int leftIndex = left.as_int();
+    if (leftIndex < 0) {
+      leftIndex += length;
+      if (leftIndex < 0) {
+        leftIndex = 0;
+      }
+    } else if (leftIndex > length) {
+      leftIndex = length;
+    }
+    int rightIndex = right.as_int();
+    if (rightIndex < 0) {
+      rightIndex += length;
+      if (rightIndex < 0) {
+        rightIndex = 0;
+      }
+    } else if (rightIndex > length) {
+      rightIndex = length;
+    }
+    if (rightIndex > leftIndex) {
+      remove(leftIndex, rightIndex);
+    }
+  }
+
+  @Override
+  public PyIterator iter() {
+    return new PyIterator() {
+      private int index;
+
+      public PyObject next() {
+        if (index < size) {
+          return strategy.get(storage, offset + index++);
+        }
+        return null;
+      }
+    };
+  }
+
+  public void append(PyObject object) {
+    if (view) {
+      modify();
+    }
+    if (!strategy.accepts(object)) {
+      generalize(object);
+    }
+    ensureCapacity(size + 1);
+    strategy.set(storage, size++, object);
+  }
+
+  @Override
+  public PyObject getAttr(PyString name) {
+    String n = name.value();
+    if ("append".equals(n)) {
+      return new PyBuiltinFunction() {
+        @Override
+        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+          append(positionalArguments.get(0));
+          return None;
+        }
+      };
+    }
+    return super.getAttr(name);
+  }
+}
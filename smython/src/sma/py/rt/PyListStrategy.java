@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.Arrays;
+
+/**
+ * Knows how a {@link PyList} stores its elements. Lists of ints and lists of floats store them
+ * unboxed in arrays of the primitive type, all other lists store objects. An empty list has no
+ * storage and switches to the strategy of the first element added. A list switches to the object
+ * strategy for good if an element doesn't fit its primitive strategy.
+ * <p>
+ * Strategies are stateless; the list passes its storage, an array of the type the strategy
+ * allocates, to every method.
+ */
+abstract class PyListStrategy {
+  static final PyListStrategy EMPTY = new PyListStrategy() {
+    @Override
+    Object allocate(int capacity) {
+      return null;
+    }
+
+    @Override
+    int capacity(Object storage) {
+      return 0;
+    }
+
+    @Override
+    boolean accepts(PyObject value) {
+      return false;
+    }
+
+    @Override
+    PyObject get(Object storage, int index) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    void set(Object storage, int index, PyObject value) {
+      throw new IndexOutOfBoundsException();
+    }
+  };
+
+  static final PyListStrategy INTS = new PyListStrategy() {
+    @Override
+    Object allocate(int capacity) {
+      return new int[capacity];
+    }
+
+    @Override
+    int capacity(Object storage) {
+      return ((int[]) storage).length;
+    }
+
+    @Override
+    boolean accepts(PyObject value) {
+      return value instanceof PyInt;
+    }
+
+    @Override
+    PyObject get(Object storage, int index) {
+      return PyObject.make(((int[]) storage)[index]);
+    }
+
+    @Override
+    void set(Object storage, int index, PyObject value) {
+      ((int[]) storage)[index] = ((PyInt) value).value();
+    }
+
+    @Override
+    int indexOf(Object storage, int from, int to, PyObject value) {
+      if (value instanceof PyInt) {
+        int v = ((PyInt) value).value();
+        int[] ints = (int[]) storage;
+        for (int i = from; i < to; i++) {
+          if (ints[i] == v) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      return super.indexOf(storage, from, to, value);
+    }
+  };
+
+  static final PyListStrategy FLOATS = new PyListStrategy() {
+    @Override
+    Object allocate(int capacity) {
+      return new double[capacity];
+    }
+
+    @Override
+    int capacity(Object storage) {
+      return ((double[]) storage).length;
+    }
+
+    @Override
+    boolean accepts(PyObject value) {
+      return value instanceof PyFloat;
+    }
+
+    @Override
+    PyObject get(Object storage, int index) {
+      return PyObject.make(((double[]) storage)[index]);
+    }
+
+    @Override
+    void set(Object storage, int index, PyObject value) {
+      ((double[]) storage)[index] = ((PyFloat) value).value();
+    }
+
+    @Override
+    int indexOf(Object storage, int from, int to, PyObject value) {
+      if (value instanceof PyFloat) {
+        double v = ((PyFloat) value).value();
+        double[] doubles = (double[]) storage;
+        for (int i = from; i < to; i++) {
+          if (doubles[i] == v) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      return super.indexOf(storage, from, to, value);
+    }
+  };
+
+  static final PyListStrategy OBJECTS = new PyListStrategy() {
+    @Override
+    Object allocate(int capacity) {
+      return new PyObject[capacity];
+    }
+
+    @Override
+    int capacity(Object storage) {
+      return ((PyObject[]) storage).length;
+    }
+
+    @Override
+    boolean accepts(PyObject value) {
+      return true;
+    }
+
+    @Override
+    PyObject get(Object storage, int index) {
+      return ((PyObject[]) storage)[index];
+    }
+
+    @Override
+    void set(Object storage, int index, PyObject value) {
+      ((PyObject[]) storage)[index] = value;
+    }
+
+    @Override
+    void clear(Object storage, int from, int to) {
+      Arrays.fill((PyObject[]) storage, from, to, null);
+    }
+  };
+
+  /**
+   * Returns the strategy for a list whose first element is the given value.
+   */
+  static PyListStrategy of(PyObject value) {
+    if (value instanceof PyInt) {
+      return INTS;
+    }
+    if (value instanceof PyFloat) {
+      return FLOATS;
+    }
+    return OBJECTS;
+  }
+
+  /**
+   * Returns the strategy for a list of the given values, which must not be empty.
+   */
+  static PyListStrategy of(PyObject[] values) {
+    PyListStrategy strategy = of(values[0]);
+    for (PyObject value : values) {
+      if (!strategy.accepts(value)) {
+        return OBJECTS;
+      }
+    }
+    return strategy;
+  }
+
+  abstract Object allocate(int capacity);
+
+  abstract int capacity(Object storage);
+
+  /**
+   * Returns whether the value can be stored without switching to another strategy.
+   */
+  abstract boolean accepts(PyObject value);
+
+  abstract PyObject get(Object storage, int index);
+
+  abstract void set(Object storage, int index, PyObject value);
+
+  /**
+   * Forgets the elements in the given range which are no longer part of the list.
+   */
+  void clear(Object storage, int from, int to) {
+  }
+
+  /**
+   * Returns the index of the first element in the given range equal to the value or -1 if there
+   * is none.
+   */
+  int indexOf(Object storage, int from, int to, PyObject value) {
+    for (int i = from; i < to; i++) {
+      if (value.equals(get(storage, i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -1,224 +1,372 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import java.math.BigInteger;
-
-public class PyLong extends PyNumber {
-  private final BigInteger value;
-
-  PyLong(BigInteger value) {
-    this.value = value;
-  }
-
-  public BigInteger value() {
-    return value;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    return obj instanceof PyLong && value.equals(((PyLong) obj).value);
-  }
-
-  @Override
-  public int hashCode() {
-    return value.hashCode();
-  }
-
-  @Override
-  public int compareTo(PyObject o) {
-    if (this == o) {
-      return 0;
-    }
-    if (o instanceof PyInt) {
-      return value.compareTo(o.as_bigint());
-    }
-    if (o instanceof PyLong) {
-      return value.compareTo(o.as_bigint());
-    }
-    return super.compareTo(o);
-  }
-
-  @Override
-  public String toString() {
-    return value + "L";
-  }
-
-  // ----------------------------------------------------------------------------------------------
-  // common API
-
-  @Override
-  public PyInt cmp(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value.compareTo(BigInteger.valueOf(((PyInt) other).value())));
-    }
-    if (other instanceof PyLong) {
-      return make(value.compareTo(((PyLong) other).value));
-    }
-    return super.cmp(other);
-  }
-
-  @Override
-  public PyInt nonzero() {
-    return value.equals(BigInteger.ZERO) ? False : True;
-  }
-
-  // ----------------------------------------------------------------------------------------------
-  // arithmetic API
-
-  @Override
-  public PyObject add(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value.add(other.as_bigint()));
-    }
-    if (other instanceof PyLong) {
-      return make(value.add(other.as_bigint()));
-    }
-    return super.add(other);
-  }
-
-  @Override
-  public PyObject sub(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value.subtract(other.as_bigint()));
-    }
-    if (other instanceof PyLong) {
-      return make(value.subtract(other.as_bigint()));
-    }
-    return super.sub(other);
-  }
-
-  @Override
-  public PyObject mul(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(value.multiply(other.as_bigint()));
-    }
-    if (other instanceof PyLong) {
-      return make(value.multiply(other.as_bigint()));
-    }
-    return super.mul(other);
-  }
-
-  @Override
-  public PyObject div(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(pydiv(value, other.as_bigint()));
-    }
-    if (other instanceof PyLong) {
-      return make(pydiv(value, other.as_bigint()));
-    }
-    return super.div(other);
-  }
-
-  @Override
-  public PyObject mod(PyObject other) {
-    if (other instanceof PyInt) {
-      return make(pymod(value, other.as_bigint()));
-    }
-    if (other instanceof PyLong) {
-      return make(pymod(value, other.as_bigint()));
-    }
-    return super.mod(other);
-  }
-
-  static BigInteger pydiv(BigInteger a, BigInteger b) {
-    if (a.signum() < 0) {
-      if (b.signum() > 0) {
-        a = a.subtract(b).add(BigInteger.ONE);
-      }
-    }
-    if (a.signum() > 0) {
-      if (b.signum() < 0) {
-        a = a.subtract(b).subtract(BigInteger.ONE);
-      }
-    }
-    return a.divide(b);
-  }
-
-  static BigInteger pymod(BigInteger a, BigInteger b) {
-    if (a.signum() < 0 ^ b.signum() < 0) {
-        a = a.add(b);
-    }
-    return a.remainder(b);
-  }
-
-
-
-  @Override
-  public PyObject pow(PyObject other) {
-    return make(value.pow(other.as_int()));
-  }
-
-  @Override
-  public PyObject lshift(PyObject other) {
-    return make(value.shiftLeft(other.as_int()));
-  }
-
-  @Override
-  public PyObject rshift(PyObject other) {
-    return make(value.shiftRight(other.as_int()));
-  }
-
-  @Override
-  public PyObject and(PyObject other) {
-    if (other instanceof PyNumber) {
-      return make(value.and(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-
-  @Override
-  public PyObject xor(PyObject other) {
-    if (other instanceof PyNumber) {
-      return make(value.xor(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-
-  @Override
-  public PyObject or(PyObject other) {
-    if (other instanceof PyNumber) {
-      return make(value.or(other.as_bigint()));
-    }
-    return super.and(other);
-  }
-  
-  @Override
-  public PyObject abs() {
-    return value.signum() == -1 ? make(value.negate()) : this;
-  }
-
-  // seems, that this value is special cased for negatation
-  private static final BigInteger MAX_INT = BigInteger.valueOf(2147483648L);
-
-  @Override
-  public PyObject neg() {
-    if (value.equals(MAX_INT)) {
-      return make(-2147483648);
-    }
-    return make(value.negate());
-  }
-
-  @Override
-  public PyObject invert() {
-    return make(value.not());
-  }
-
-  // ----------------------------------------------------------------------------------------------
-
-  @Override
-  protected BigInteger as_bigint() {
-    return value;
-  }
-
-  @Override
-  protected int as_int() {
-    return value.intValue();
-  }
-
-  @Override
-  public boolean truth() {
-    return !value.equals(BigInteger.ZERO);
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Represents long integers. Values which fit into a Java {@code long} are stored as such and are
+ * computed without {@link BigInteger}s as long as the results fit, too. Larger values are stored
+ * as {@code BigInteger}s. Each value has exactly one representation.
+ */
+public class PyLong extends PyNumber {
+  private final long small;
+  private final BigInteger big; // null if the value fits into small
+
+  PyLong(long value) {
+    this.small = value;
+    this.big = null;
+  }
+
+  PyLong(BigInteger value) {
+    if (value.bitLength() < 64) {
+      this.small = value.longValue();
+      this.big = null;
+    } else {
+      this.small = 0;
+      this.big = value;
+    }
+  }
+
+  public BigInteger value() {
+    return big != null ? big : BigInteger.valueOf(small);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof PyLong)) {
+      return obj instanceof PyNumber && eq((PyNumber) obj);
+    }
+    PyLong other = (PyLong) obj;
+    if (big == null) {
+      return other.big == null && small == other.small;
+    }
+    return big.equals(other.big);
+  }
+
+  @Override
+  public int hashCode() {
+    return big != null ? big.hashCode() : hash(small);
+  }
+
+  /**
+   * Returns the hash code of the given value; values which fit into an int hash like that int.
+   */
+  static int hash(long value) {
+    int i = (int) value;
+    return i == value ? i : (int) (value ^ (value >>> 32));
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (this == o) {
+      return 0;
+    }
+    if (o instanceof PyInt || o instanceof PyLong) {
+      return compare(o);
+    }
+    if (o instanceof PyFloat) {
+      return PyFloat.compare(as_double(), ((PyFloat) o).value());
+    }
+    return super.compareTo(o);
+  }
+
+  @Override
+  public String toString() {
+    return (big != null ? big.toString() : String.valueOf(small)) + "L";
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // common API
+
+  @Override
+  public PyInt cmp(PyObject other) {
+    if (other instanceof PyInt || other instanceof PyLong) {
+      return make(compare(other));
+    }
+    if (other instanceof PyFloat) {
+      return make(PyFloat.compare(as_double(), ((PyFloat) other).value()));
+    }
+    return super.cmp(other);
+  }
+
+  private int compare(PyObject other) {
+    if (big == null) {
+      long v;
+      if (other instanceof PyInt) {
+        v = ((PyInt) other).value();
+      } else if (((PyLong) other).big == null) {
+        v = ((PyLong) other).small;
+      } else {
+        return -((PyLong) other).big.signum();
+      }
+      return small < v ? -1 : small == v ? 0 : 1;
+    }
+    return big.compareTo(other.as_bigint());
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    if (other instanceof PyFloat) {
+      return eq(((PyFloat) other).value());
+    }
+    return other instanceof PyNumber && compareTo(other) == 0;
+  }
+
+  /**
+   * Returns whether the given float has exactly the value of this long. Comparing with
+   * {@link #as_double()} instead would round longs which don't fit into a double.
+   */
+  boolean eq(double value) {
+    if (value != Math.rint(value) || Double.isInfinite(value)) {
+      return false;
+    }
+    if (big == null) {
+      return value >= -0x1p63 && value < 0x1p63 && small == (long) value;
+    }
+    return big.equals(new BigDecimal(value).toBigInteger());
+  }
+
+  @Override
+  public PyInt nonzero() {
+    return truth() ? True : False;
+  }
+
+  @Override
+  public PyObject coerce(PyObject other) {
+    if (other instanceof PyFloat) {
+      return make(make(as_double()), other);
+    }
+    return super.coerce(other);
+  }
+
+  @Override
+  public PyObject toFloat() {
+    return make(as_double());
+  }
+
+  // ----------------------------------------------------------------------------------------------
+  // arithmetic API
+
+  @Override
+  public PyObject add(PyObject other) {
+    if (big == null) {
+      if (other instanceof PyInt) {
+        return plus(small, ((PyInt) other).value());
+      }
+      if (other instanceof PyLong && ((PyLong) other).big == null) {
+        return plus(small, ((PyLong) other).small);
+      }
+    }
+    if (other instanceof PyInt || other instanceof PyLong) {
+      return make(value().add(other.as_bigint()));
+    }
+    return super.add(other);
+  }
+
+  @Override
+  public PyObject sub(PyObject other) {
+    if (big == null) {
+      if (other instanceof PyInt) {
+        return minus(small, ((PyInt) other).value());
+      }
+      if (other instanceof PyLong && ((PyLong) other).big == null) {
+        return minus(small, ((PyLong) other).small);
+      }
+    }
+    if (other instanceof PyInt || other instanceof PyLong) {
+      return make(value().subtract(other.as_bigint()));
+    }
+    return super.sub(other);
+  }
+
+  @Override
+  public PyObject mul(PyObject other) {
+    if (big == null) {
+      if (other instanceof PyInt) {
+        return times(small, ((PyInt) other).value());
+      }
+      if (other instanceof PyLong && ((PyLong) other).big == null) {
+        return times(small, ((PyLong) other).small);
+      }
+    }
+    if (other instanceof PyInt || other instanceof PyLong) {
+      return make(value().multiply(other.as_bigint()));
+    }
+    return super.mul(other);
+  }
+
+  static PyLong plus(int l, PyLong r) {
+    return r.big == null ? plus(l, r.small) : make(BigInteger.valueOf(l).add(r.big));
+  }
+
+  static PyLong minus(int l, PyLong r) {
+    return r.big == null ? minus(l, r.small) : make(BigInteger.valueOf(l).subtract(r.big));
+  }
+
+  static PyLong times(int l, PyLong r) {
+    return r.big == null ? times(l, r.small) : make(BigInteger.valueOf(l).multiply(r.big));
+  }
+
+  // the overflow checks are the same as in Math.addExact, subtractExact and multiplyExact
+
+  private static PyLong plus(long l, long r) {
+    long result = l + r;
+    if (((l ^ result) & (r ^ result)) < 0) {
+      return make(BigInteger.valueOf(l).add(BigInteger.valueOf(r)));
+    }
+    return new PyLong(result);
+  }
+
+  private static PyLong minus(long l, long r) {
+    long result = l - r;
+    if (((l ^ r) & (l ^ result)) < 0) {
+      return make(BigInteger.valueOf(l).subtract(BigInteger.valueOf(r)));
+    }
+    return new PyLong(result);
+  }
+
+  private static PyLong times(long l, long r) {
+    long result = l * r;
+    if ((Math.abs(l) | Math.abs(r)) >>> 31 != 0) {
+      if (r != 0 && result / r != l || l == Long.MIN_VALUE && r == -1) {
+        return make(BigInteger.valueOf(l).multiply(BigInteger.valueOf(r)));
+      }
+    }
+    return new PyLong(result);
+  }
+
+  @Override
+  public PyObject div(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(pydiv(value(), other.as_bigint()));
+    }
+    if (other instanceof PyLong) {
+      return make(pydiv(value(), other.as_bigint()));
+    }
+    return super.div(other);
+  }
+
+  @Override
+  public PyObject mod(PyObject other) {
+    if (other instanceof PyInt) {
+      return make(pymod(value(), other.as_bigint()));
+    }
+    if (other instanceof PyLong) {
+      return make(pymod(value(), other.as_bigint()));
+    }
+    return super.mod(other);
+  }
+
+  static BigInteger pydiv(BigInteger a, BigInteger b) {
+    if (a.signum() < 0) {
+      if (b.signum() > 0) {
+        a = a.subtract(b).add(BigInteger.ONE);
+      }
+    }
+    if (a.signum() > 0) {
+      if (b.signum() < 0) {
+        a = a.subtract(b).subtract(BigInteger.ONE);
+      }
+    }
+    return a.divide(b);
+  }
+
+  static BigInteger pymod(BigInteger a, BigInteger b) {
+    if (a.signum() < 0 ^ b.signum() < 0) {
+        a = a.add(b);
+    }
+    return a.remainder(b);
+  }
+
+  @Override
+  public PyObject pow(PyObject other) {
+    if (other instanceof PyFloat || other instanceof PyNumber && other.as_bigint().signum() < 0) {
+      return toFloat().pow(other);
+    }
+    return make(value().pow(other.as_int()));
+  }
+
+  @Override
+  public PyObject lshift(PyObject other) {
+    return make(value().shiftLeft(other.as_int()));
+  }
+
+  @Override
+  public PyObject rshift(PyObject other) {
+    return make(value().shiftRight(other.as_int()));
+  }
+
+  @Override
+  public PyObject and(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value().and(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+
+  @Override
+  public PyObject xor(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value().xor(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+
+  @Override
+  public PyObject or(PyObject other) {
+    if (other instanceof PyNumber) {
+      return make(value().or(other.as_bigint()));
+    }
+    return super.and(other);
+  }
+  
+  @Override
+  public PyObject abs() {
+    if (big == null) {
+      return small < 0 ? neg() : this;
+    }
+    return big.signum() == -1 ? make(big.negate()) : this;
+  }
+
+  @Override
+  public PyObject neg() {
+    // seems, that this value is special cased for negatation
+    if (big == null && small == 2147483648L) {
+      return make(-2147483648);
+    }
+    if (big == null && small != Long.MIN_VALUE) {
+      return new PyLong(-small);
+    }
+    return make(value().negate());
+  }
+
+  @Override
+  public PyObject invert() {
+    return make(value().not());
+  }
+
+  // ----------------------------------------------------------------------------------------------
+
+  @Override
+  protected BigInteger as_bigint() {
+    return value();
+  }
+
+  @Override
+  protected double as_double() {
+    return big != null ? big.doubleValue() : small;
+  }
+
+  @Override
+  protected int as_int() {
+    return big != null ? big.intValue() : (int) small;
+  }
+
+  @Override
+  public boolean truth() {
+    return big != null || small != 0;
+  }
+}
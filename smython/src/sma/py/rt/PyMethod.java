@@ -1,27 +1,58 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-public class PyMethod extends PyCallable {
-  private final PyFunction func;
-  private final PyInstance self;
-
-  public PyMethod(PyFunction func, PyInstance self) {
-    this.func = func;
-    this.self = self;
-  }
-
-  @Override
-  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
-    if (self == null) {
-      // unbound method, first positional argument must be instanceof method's class
-      // TODO check that first argument is of correct type
-      return func.apply(frame, positionalArguments, keywordArguments);
-    } else {
-      // bound method, function is called with self as the first parameter
-      return func.apply(frame, positionalArguments.prepend(self), keywordArguments);
-    }
-  }
-
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+public class PyMethod extends PyCallable {
+  private final PyFunction func;
+  private final PyInstance self;
+
+  public PyMethod(PyFunction func, PyInstance self) {
+    this.func = func;
+    this.self = self;
+  }
+
+  @Override
+  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+    if (self == null) {
+      // unbound method, first positional argument must be instanceof method's class
+      // TODO check that first argument is of correct type
+      return func.apply(frame, positionalArguments, keywordArguments);
+    } else {
+      // bound method, function is called with self as the first parameter
+      return func.apply(frame, positionalArguments.prepend(self), keywordArguments);
+    }
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame) {
+    return self == null ? func.invoke(frame) : func.invoke(frame, self);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0) {
+    return self == null ? func.invoke(frame, arg0) : func.invoke(frame, self, arg0);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1) {
+    return self == null ? func.invoke(frame, arg0, arg1) : func.invoke(frame, self, arg0, arg1);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1, PyObject arg2) {
+    return self == null ? func.invoke(frame, arg0, arg1, arg2) : func.invoke(frame, new PyObject[]{self, arg0, arg1, arg2});
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject[] arguments) {
+    if (self == null) {
+      return func.invoke(frame, arguments);
+    }
+    PyObject[] narguments = new PyObject[arguments.length + 1];
+    narguments[0] = self;
+    System.arraycopy(arguments, 0, narguments, 1, arguments.length);
+    return func.invoke(frame, narguments);
+  }
+
+}
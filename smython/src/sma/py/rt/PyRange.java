@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+/**
+ * Represents the immutable sequence of ints returned by <code>xrange()</code>. Elements are
+ * computed when they are accessed so a range takes the same space regardless of its length.
+ * <p>
+ * <code>range()</code> returns the same elements as a list. The <code>for</code> statement calls
+ * {@link #XRANGE} instead of {@link #RANGE} because the list would only be iterated.
+ */
+public class PyRange extends PyImmutableSeq {
+  public static final PyBuiltinFunction RANGE = new PyBuiltinFunction() {
+    @Override
+    public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+      return create(positionalArguments).list();
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject[] arguments) {
+      return create(PyTuple.of(arguments)).list();
+    }
+  };
+
+  public static final PyBuiltinFunction XRANGE = new PyBuiltinFunction() {
+    @Override
+    public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+      return create(positionalArguments);
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject arg0) {
+      return new PyRange(0, integer(arg0), 1);
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1) {
+      return new PyRange(integer(arg0), integer(arg1), 1);
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject[] arguments) {
+      return create(PyTuple.of(arguments));
+    }
+  };
+
+  private final int start;
+  private final int step;
+  private final int length;
+
+  public PyRange(int start, int stop, int step) {
+    if (step == 0) {
+      throw Py.valueError("range() step argument must not be zero");
+    }
+    long length;
+    if (step > 0) {
+      length = start < stop ? ((long) stop - start - 1) / step + 1 : 0;
+    } else {
+      length = start > stop ? ((long) start - stop - 1) / -(long) step + 1 : 0;
+    }
+    if (length > Integer.MAX_VALUE) {
+      throw Py.raise(intern("OverflowError"), make("range() result has too many items"));
+    }
+    this.start = start;
+    this.step = step;
+    this.length = (int) length;
+  }
+
+  /**
+   * Returns a new range for the arguments of <code>range()</code> or <code>xrange()</code>, that
+   * is, either <i>stop</i> or <i>start</i>, <i>stop</i> and an optional <i>step</i>.
+   */
+  private static PyRange create(PyTuple arguments) {
+    switch (arguments.size()) {
+    case 1:
+      return new PyRange(0, integer(arguments.get(0)), 1);
+    case 2:
+      return new PyRange(integer(arguments.get(0)), integer(arguments.get(1)), 1);
+    case 3:
+      return new PyRange(integer(arguments.get(0)), integer(arguments.get(1)), integer(arguments.get(2)));
+    default:
+      throw Py.typeError("range() requires 1-3 int arguments");
+    }
+  }
+
+  private static int integer(PyObject argument) {
+    if (argument instanceof PyInt) {
+      return ((PyInt) argument).value();
+    }
+    if (argument instanceof PyLong) {
+      return argument.as_int();
+    }
+    throw Py.typeError("range() integer argument expected");
+  }
+
+  public int getStart() {
+    return start;
+  }
+
+  public int getStep() {
+    return step;
+  }
+
+  public int size() {
+    return length;
+  }
+
+  public int get(int index) {
+    return start + index * step;
+  }
+
+  /**
+   * Returns the elements as a new list.
+   */
+  public PyList list() {
+    int[] ints = new int[length];
+    for (int i = 0, value = start; i < length; i++, value += step) {
+      ints[i] = value;
+    }
+    return new PyList(PyListStrategy.INTS, ints, length);
+  }
+
+  @Override
+  public String toString() {
+    if (start == 0 && step == 1) {
+      return "xrange(" + length + ")";
+    }
+    long stop = start + (long) length * step;
+    if (step == 1) {
+      return "xrange(" + start + ", " + stop + ")";
+    }
+    return "xrange(" + start + ", " + stop + ", " + step + ")";
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return make(length);
+  }
+
+  @Override
+  public PyObject getItem(PyObject key) {
+    int index = key.as_int();
+    if (index < 0) {
+      index += length;
+    }
+    if (index < 0 || index >= length) {
+      throw Py.indexError(make("xrange object index out of range"));
+    }
+    return make(get(index));
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    if (!(key instanceof PyInt)) {
+      return false;
+    }
+    long offset = (long) ((PyInt) key).value() - start;
+    return offset % step == 0 && offset / step >= 0 && offset / step < length;
+  }
+
+  @Override
+  public PyIterator iter() {
+    return new PyIterator() {
+      private int index;
+
+      public PyObject next() {
+        if (index < length) {
+          return make(get(index++));
+        }
+        return null;
+      }
+    };
+  }
+}
@@ -0,0 +1,496 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents sets and frozen sets as returned by <code>set()</code> and <code>frozenset()</code>.
+ * <p>
+ * Elements and their hash codes are stored in an open addressing table which is probed like the
+ * index table of a {@link PyDict}; deleted elements leave a dummy until the table is resized.
+ * Union, intersection and difference allocate a table large enough for their result up front
+ * and reuse the stored hash codes instead of asking the elements again.
+ */
+public class PySet extends PyObject {
+  public static final PyBuiltinFunction SET = new PyBuiltinFunction() {
+    @Override
+    public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+      return create(false, positionalArguments);
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject arg0) {
+      return of(false, arg0);
+    }
+  };
+
+  public static final PyBuiltinFunction FROZENSET = new PyBuiltinFunction() {
+    @Override
+    public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+      return create(true, positionalArguments);
+    }
+
+    @Override
+    public PyObject invoke(PyFrame frame, PyObject arg0) {
+      return of(true, arg0);
+    }
+  };
+
+  private static final int MIN_SIZE = 8; // of the table, must be a power of two
+  private static final PyObject DUMMY = new PyObject() {}; // marks deleted elements
+
+  private final boolean frozen;
+  private PyObject[] table; // null for free slots
+  private int[] hashes;
+  private int size; // number of elements
+  private int fill; // number of elements and dummies
+
+  public PySet(boolean frozen) {
+    this(frozen, 0);
+  }
+
+  /**
+   * Constructs an empty set which can hold the given number of elements without growing.
+   */
+  public PySet(boolean frozen, int capacity) {
+    this.frozen = frozen;
+    allocate(tableSize(capacity));
+  }
+
+  /**
+   * Constructs a set of the elements of the given iterable object.
+   */
+  public static PySet of(boolean frozen, PyObject iterable) {
+    if (iterable instanceof PySet) {
+      PySet other = (PySet) iterable;
+      if (frozen && other.frozen) {
+        return other;
+      }
+      return other.copy(frozen, other.size);
+    }
+    PySet set = new PySet(frozen, iterable instanceof PyList ? ((PyList) iterable).size() : 0);
+    set.addAll(iterable);
+    return set;
+  }
+
+  private static PySet create(boolean frozen, PyTuple arguments) {
+    switch (arguments.size()) {
+    case 0:
+      return new PySet(frozen);
+    case 1:
+      return of(frozen, arguments.get(0));
+    default:
+      throw Py.typeError((frozen ? "frozenset" : "set") + "() takes at most 1 argument");
+    }
+  }
+
+  /**
+   * Returns the size of a table which can hold the given number of elements.
+   */
+  private static int tableSize(int capacity) {
+    int n = MIN_SIZE;
+    while (n * 2 / 3 <= capacity) {
+      n <<= 1;
+    }
+    return n;
+  }
+
+  private void allocate(int tableSize) {
+    table = new PyObject[tableSize];
+    hashes = new int[tableSize];
+    fill = size;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    return obj instanceof PySet && eq((PySet) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 0;
+    for (int i = 0; i < table.length; i++) {
+      PyObject k = table[i];
+      if (k != null && k != DUMMY) {
+        h += hashes[i];
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    List<PyObject> elements = new ArrayList<PyObject>(size);
+    for (PyObject k : table) {
+      if (k != null && k != DUMMY) {
+        elements.add(k);
+      }
+    }
+    Collections.sort(elements);
+    StringBuilder b = new StringBuilder();
+    b.append(frozen ? "frozenset([" : "set([");
+    for (int i = 0; i < elements.size(); i++) {
+      if (i > 0) {
+        b.append(", ");
+      }
+      b.append(elements.get(i));
+    }
+    b.append("])");
+    return b.toString();
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // hash table
+
+  /**
+   * Returns the slot of the given element or, if there is no such element, the slot where it
+   * should be added.
+   */
+  private int lookup(PyObject key, int hash) {
+    PyObject[] table = this.table;
+    int mask = table.length - 1;
+    int i = hash & mask;
+    int freeSlot = -1;
+    for (int perturb = hash; ; perturb >>>= 5) {
+      PyObject k = table[i];
+      if (k == null) {
+        return freeSlot != -1 ? freeSlot : i;
+      }
+      if (k == key) {
+        return i;
+      }
+      if (k == DUMMY) {
+        if (freeSlot == -1) {
+          freeSlot = i;
+        }
+      } else if (hashes[i] == hash && k.equals(key)) {
+        return i;
+      }
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+  }
+
+  /**
+   * Returns whether the set contains the given element.
+   */
+  public boolean contains(PyObject key) {
+    return contains(key, key.hashCode());
+  }
+
+  private boolean contains(PyObject key, int hash) {
+    PyObject k = table[lookup(key, hash)];
+    return k != null && k != DUMMY;
+  }
+
+  /**
+   * Adds the given element and returns whether it was new.
+   */
+  public boolean addElement(PyObject key) {
+    return addElement(key, key.hashCode());
+  }
+
+  private boolean addElement(PyObject key, int hash) {
+    int slot = lookup(key, hash);
+    PyObject k = table[slot];
+    if (k != null && k != DUMMY) {
+      return false;
+    }
+    table[slot] = key;
+    hashes[slot] = hash;
+    size++;
+    if (k == null && ++fill * 3 >= table.length * 2) {
+      resize(tableSize(size * 2));
+    }
+    return true;
+  }
+
+  /**
+   * Adds an element known not to be in the set yet to a set without dummies which is large
+   * enough, see {@link #copy(boolean, int)}.
+   */
+  private void addNew(PyObject key, int hash) {
+    PyObject[] table = this.table;
+    int mask = table.length - 1;
+    int i = hash & mask;
+    for (int perturb = hash; table[i] != null; perturb >>>= 5) {
+      i = (i * 5 + 1 + perturb) & mask;
+    }
+    table[i] = key;
+    hashes[i] = hash;
+    size++;
+    fill++;
+  }
+
+  private void addAll(PyObject iterable) {
+    if (iterable instanceof PySet) {
+      PySet other = (PySet) iterable;
+      for (int i = 0; i < other.table.length; i++) {
+        PyObject k = other.table[i];
+        if (k != null && k != DUMMY) {
+          addElement(k, other.hashes[i]);
+        }
+      }
+    } else {
+      PyIterator iterator = iterable.iter();
+      PyObject k;
+      while ((k = iterator.next()) != null) {
+        addElement(k);
+      }
+    }
+  }
+
+  /**
+   * Removes the given element and returns whether it was there.
+   */
+  public boolean discard(PyObject key) {
+    int slot = lookup(key, key.hashCode());
+    PyObject k = table[slot];
+    if (k == null || k == DUMMY) {
+      return false;
+    }
+    table[slot] = DUMMY;
+    size--;
+    return true;
+  }
+
+  /**
+   * Drops dummies and rehashes the elements into a table of the given size.
+   */
+  private void resize(int tableSize) {
+    PyObject[] oldTable = table;
+    int[] oldHashes = hashes;
+    size = 0;
+    allocate(tableSize);
+    for (int i = 0; i < oldTable.length; i++) {
+      PyObject k = oldTable[i];
+      if (k != null && k != DUMMY) {
+        addNew(k, oldHashes[i]);
+      }
+    }
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+  // set algebra
+
+  /**
+   * Returns a copy of this set which can hold the given number of elements without growing.
+   */
+  private PySet copy(boolean frozen, int capacity) {
+    PySet set = new PySet(frozen, capacity);
+    for (int i = 0; i < table.length; i++) {
+      PyObject k = table[i];
+      if (k != null && k != DUMMY) {
+        set.addNew(k, hashes[i]);
+      }
+    }
+    return set;
+  }
+
+  public PySet union(PyObject other) {
+    PySet set = copy(frozen, size + (other instanceof PySet ? ((PySet) other).size : 0));
+    set.addAll(other);
+    return set;
+  }
+
+  public PySet intersection(PyObject other) {
+    if (!(other instanceof PySet)) {
+      PySet set = new PySet(frozen);
+      PyIterator iterator = other.iter();
+      PyObject k;
+      while ((k = iterator.next()) != null) {
+        int hash = k.hashCode();
+        if (contains(k, hash)) {
+          set.addElement(k, hash);
+        }
+      }
+      return set;
+    }
+    PySet small = this;
+    PySet large = (PySet) other;
+    if (small.size > large.size) {
+      small = large;
+      large = this;
+    }
+    PySet set = new PySet(frozen, small.size);
+    for (int i = 0; i < small.table.length; i++) {
+      PyObject k = small.table[i];
+      if (k != null && k != DUMMY && large.contains(k, small.hashes[i])) {
+        set.addNew(k, small.hashes[i]);
+      }
+    }
+    return set;
+  }
+
+  public PySet difference(PyObject other) {
+    PySet set = other instanceof PySet ? (PySet) other : of(true, other);
+    PySet result = new PySet(frozen, size);
+    for (int i = 0; i < table.length; i++) {
+      PyObject k = table[i];
+      if (k != null && k != DUMMY && !set.contains(k, hashes[i])) {
+        result.addNew(k, hashes[i]);
+      }
+    }
+    return result;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public boolean eq(PyObject other) {
+    if (this == other) {
+      return true;
+    }
+    if (other instanceof PySet) {
+      PySet set = (PySet) other;
+      if (size != set.size) {
+        return false;
+      }
+      for (int i = 0; i < table.length; i++) {
+        PyObject k = table[i];
+        if (k != null && k != DUMMY && !set.contains(k, hashes[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean truth() {
+    return size != 0;
+  }
+
+  @Override
+  public PyObject len() {
+    return make(size);
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    return contains(key, key.hashCode());
+  }
+
+  @Override
+  public PyIterator iter() {
+    return new PyIterator() {
+      private final int expectedSize = size;
+      private int index;
+
+      public PyObject next() {
+        if (size != expectedSize) {
+          throw Py.raise(intern("RuntimeError"), make("set changed size during iteration"));
+        }
+        PyObject[] table = PySet.this.table;
+        while (index < table.length) {
+          PyObject k = table[index++];
+          if (k != null && k != DUMMY) {
+            return k;
+          }
+        }
+        return null;
+      }
+    };
+  }
+
+  @Override
+  public PyObject and(PyObject right) {
+    if (right instanceof PySet) {
+      return intersection(right);
+    }
+    return super.and(right);
+  }
+
+  @Override
+  public PyObject or(PyObject right) {
+    if (right instanceof PySet) {
+      return union(right);
+    }
+    return super.or(right);
+  }
+
+  @Override
+  public PyObject sub(PyObject right) {
+    if (right instanceof PySet) {
+      return difference(right);
+    }
+    return super.sub(right);
+  }
+
+  @Override
+  public PyObject getAttr(PyString name) {
+    String n = name.value();
+    if ("union".equals(n)) {
+      return new PyBuiltinFunction() {
+        @Override
+        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+          return union(positionalArguments.get(0));
+        }
+      };
+    }
+    if ("intersection".equals(n)) {
+      return new PyBuiltinFunction() {
+        @Override
+        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+          return intersection(positionalArguments.get(0));
+        }
+      };
+    }
+    if ("difference".equals(n)) {
+      return new PyBuiltinFunction() {
+        @Override
+        public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+          return difference(positionalArguments.get(0));
+        }
+      };
+    }
+    if (!frozen) {
+      if ("add".equals(n)) {
+        return new PyBuiltinFunction() {
+          @Override
+          public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+            addElement(positionalArguments.get(0));
+            return None;
+          }
+        };
+      }
+      if ("discard".equals(n)) {
+        return new PyBuiltinFunction() {
+          @Override
+          public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+            discard(positionalArguments.get(0));
+            return None;
+          }
+        };
+      }
+      if ("remove".equals(n)) {
+        return new PyBuiltinFunction() {
+          @Override
+          public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+            PyObject key = positionalArguments.get(0);
+            if (!discard(key)) {
+              throw Py.keyError(key);
+            }
+            return None;
+          }
+        };
+      }
+    }
+    return super.getAttr(name);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Describes the layout of the attributes of instances, that is, which attribute is stored at which
+ * index of the instance's value array. Instances of the same class which got the same attributes
+ * in the same order share the same shape. Shapes are immutable; adding an attribute transitions
+ * to another shape which is created only once.
+ *
+ * @see PyInstance
+ */
+final class PyShape {
+  /**
+   * Instances with more attributes store them in a dictionary.
+   */
+  static final int MAX_SIZE = 32;
+
+  private final PyString[] names;
+  private final Map<PyString, PyShape> transitions = new HashMap<PyString, PyShape>(4);
+
+  PyShape() {
+    this(new PyString[0]);
+  }
+
+  private PyShape(PyString[] names) {
+    this.names = names;
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  PyString getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * Returns the index of the given attribute or -1 if the shape has no such attribute.
+   */
+  int indexOf(PyString name) {
+    PyString[] names = this.names;
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] == name) {
+        return i;
+      }
+    }
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the shape which has all attributes of this shape plus the given attribute at index
+   * {@link #size()}.
+   */
+  PyShape add(PyString name) {
+    synchronized (transitions) {
+      PyShape shape = transitions.get(name);
+      if (shape == null) {
+        PyString[] newNames = new PyString[names.length + 1];
+        System.arraycopy(names, 0, newNames, 0, names.length);
+        newNames[names.length] = name;
+        shape = new PyShape(newNames);
+        transitions.put(name, shape);
+      }
+      return shape;
+    }
+  }
+}
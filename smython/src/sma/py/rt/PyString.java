@@ -1,164 +1,331 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-public class PyString extends PyImmutableSeq {
-  private final String str;
-
-  public PyString(String str) {
-    this.str = str;
-  }
-
-  public String value() {
-    return str;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    return this == obj || obj instanceof PyString && str.equals(((PyString) obj).str);
-  }
-
-  @Override
-  public int hashCode() {
-    return str.hashCode();
-  }
-
-  @Override
-  public int compareTo(PyObject o) {
-    if (o instanceof PyString) {
-      return str.compareTo(((PyString) o).str);
-    }
-    return super.compareTo(o);
-  }
-
-  @Override
-  public String toString() {
-    StringBuilder b = new StringBuilder(str.length());
-    char q = str.indexOf('\'') != -1 ? '"' : '\'';
-    b.append(q);
-    for (int i = 0, len = str.length(); i < len; i++) {
-      char c = str.charAt(i);
-      if (c >= ' ' && c <= '~') {
-        b.append(c);
-      } else {
-        b.append('\\');
-        if (c == '\n') {
-          b.append('n');
-        } else {
-          b.append('x');
-          b.append("0123456789abcdef".charAt(c / 16));
-          b.append("0123456789abcdef".charAt(c % 16));
-        }
-      }
-    }
-    b.append(q);
-    return b.toString();
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyString str() {
-    return this;
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject add(PyObject other) {
-    if (other instanceof PyString) {
-      if (str.length() == 0) {
-        return other;
-      }
-      String otherStr = ((PyString) other).str;
-      if (otherStr.length() == 0) {
-        return this;
-      }
-      return make(str + otherStr);
-    }
-    return super.add(other);
-  }
-  
-  @Override
-  public PyObject mul(PyObject other) {
-    if (other instanceof PyInt) {
-      int i = other.as_int();
-      if (i < 1) {
-        return EmptyString;
-      }
-      if (i == 1) {
-        return this;
-      }
-      StringBuilder b = new StringBuilder(str.length() * i);
-      while (i > 0) {
-        b.append(str);
-        i--;
-      }
-      return make(b.toString());
-    }
-    return super.mul(other);
-  }
-  
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject len() {
-    return make(str.length());
-  }
-
-  @Override
-  public PyObject getItem(PyObject key) {
-    int index = key.as_int();
-    if (index < 0) {
-      index += str.length();
-    }
-    try {
-      return new PyString(str.substring(index, index + 1));
-    } catch (StringIndexOutOfBoundsException e) {
-      throw Py.indexError(key);
-    }
-  }
-
-  @Override
-  public boolean hasItem(PyObject key) {
-    return str.contains(key.str().value());
-  }
-
-  @Override
-  public PyObject getSlice(PyObject left, PyObject right) {
-    int length = str.length();
-    int leftIndex = left.as_int();
-    int rightIndex = right.as_int();
-    if (leftIndex < 0) {
-      leftIndex += length;
-      if (leftIndex < 0) {
-        leftIndex = 0;
-      }
-    } else if (leftIndex > length) {
-      leftIndex = length;
-    }
-    if (rightIndex < 0) {
-      rightIndex += length;
-      if (rightIndex < 0) {
-        rightIndex = 0;
-      }
-    } else if (rightIndex > length) {
-      rightIndex = length;
-    }
-    if (rightIndex - leftIndex < 1) {
-      return EmptyString;
-    }
-    return new PyString(str.substring(leftIndex, rightIndex));
-  }
-
-  @Override
-  public boolean exceptionType() {
-    return true;
-  }
-
-  @Override
-  public boolean exceptionMatches(PyObject object) {
-    return this.equals(object);
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.ArrayList;
+
+/**
+ * Represents strings. Concatenating long strings doesn't copy their characters but creates a
+ * string which remembers both parts (a rope) and joins them the first time its characters are
+ * needed, so building a string piece by piece takes linear instead of quadratic time.
+ * <p>
+ * Long slices share the characters of the string they were sliced from until their own
+ * characters are needed. Indexing, slicing and iterating them doesn't copy anything. Strings of
+ * one Latin-1 character are preallocated, see {@link #valueOf(char)}.
+ */
+public class PyString extends PyImmutableSeq {
+  // shorter results are copied right away which is faster than joining them later
+  private static final int MIN_ROPE_LENGTH = 64;
+
+  // shorter slices and slices shorter than a quarter of their base are copied right away
+  private static final int MIN_SLICE_LENGTH = 64;
+
+  private static final PyString[] CHARS = new PyString[256];
+
+  static {
+    for (int i = 0; i < CHARS.length; i++) {
+      CHARS[i] = new PyString(String.valueOf((char) i));
+    }
+  }
+
+  private String str; // null until the parts are joined or the slice is copied
+  private PyString left;
+  private PyString right;
+  private PyString base; // the string a slice shares its characters with
+  private final int offset; // of a slice in its base string
+  private final int length;
+
+  public PyString(String str) {
+    this.str = str;
+    this.offset = 0;
+    this.length = str.length();
+  }
+
+  private PyString(PyString left, PyString right) {
+    this.left = left;
+    this.right = right;
+    this.offset = 0;
+    this.length = left.length + right.length;
+  }
+
+  private PyString(PyString base, int offset, int length) {
+    this.base = base;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Returns the string of the given character, which is shared for Latin-1 characters.
+   */
+  public static PyString valueOf(char c) {
+    return c < CHARS.length ? CHARS[c] : new PyString(String.valueOf(c));
+  }
+
+  public String value() {
+    String s = str;
+    return s != null ? s : flatten();
+  }
+
+  /**
+   * Returns the character at the given index without joining the parts or copying a slice.
+   */
+  private char charAt(int index) {
+    String s = str;
+    if (s == null) {
+      PyString base = this.base;
+      if (base != null) {
+        return base.str.charAt(offset + index);
+      }
+      s = value();
+    }
+    return s.charAt(index);
+  }
+
+  /**
+   * Returns the characters from begin to end, sharing the base string if the slice is long.
+   */
+  private PyString substring(int begin, int end) {
+    int length = end - begin;
+    if (length == this.length) {
+      return this;
+    }
+    if (length == 1) {
+      return valueOf(charAt(begin));
+    }
+    PyString base = this.base;
+    if (base != null && str == null) {
+      begin += offset;
+    } else {
+      base = this;
+    }
+    String s = base.value();
+    if (length < MIN_SLICE_LENGTH || length < s.length() / 4) {
+      return new PyString(s.substring(begin, begin + length));
+    }
+    return new PyString(base, begin, length);
+  }
+
+  /**
+   * Joins the parts of a concatenated string or copies a slice. Ropes built by a loop are deeply nested, so the
+   * parts are visited without recursion, from right to left.
+   */
+  private synchronized String flatten() {
+    if (str == null) {
+      char[] chars = new char[length];
+      int end = length;
+      ArrayList<PyString> stack = new ArrayList<PyString>();
+      stack.add(this);
+      while (!stack.isEmpty()) {
+        PyString s = stack.remove(stack.size() - 1);
+        String v = s.str;
+        if (v == null) {
+          PyString l = s.left;
+          PyString r = s.right;
+          if (l != null && r != null) {
+            stack.add(l);
+            stack.add(r);
+            continue;
+          }
+          PyString b = s.base;
+          if (b != null) {
+            end -= s.length;
+            b.str.getChars(s.offset, s.offset + s.length, chars, end);
+            continue;
+          }
+          v = s.value(); // joined by another thread in the meantime
+        }
+        end -= v.length();
+        v.getChars(0, v.length(), chars, end);
+      }
+      str = new String(chars);
+      left = null;
+      right = null;
+      base = null;
+    }
+    return str;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return this == obj || obj instanceof PyString && length == ((PyString) obj).length && value().equals(((PyString) obj).value());
+  }
+
+  @Override
+  public int hashCode() {
+    return value().hashCode();
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (o instanceof PyString) {
+      return value().compareTo(((PyString) o).value());
+    }
+    return super.compareTo(o);
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    return this == other || other instanceof PyString && length == ((PyString) other).length && value().equals(((PyString) other).value());
+  }
+
+  @Override
+  public String toString() {
+    String str = value();
+    StringBuilder b = new StringBuilder(length + 2);
+    char q = str.indexOf('\'') != -1 ? '"' : '\'';
+    b.append(q);
+    for (int i = 0, len = str.length(); i < len; i++) {
+      char c = str.charAt(i);
+      if (c >= ' ' && c <= '~') {
+        b.append(c);
+      } else {
+        b.append('\\');
+        if (c == '\n') {
+          b.append('n');
+        } else {
+          b.append('x');
+          b.append("0123456789abcdef".charAt(c / 16));
+          b.append("0123456789abcdef".charAt(c % 16));
+        }
+      }
+    }
+    b.append(q);
+    return b.toString();
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyString str() {
+    return this;
+  }
+
+  @Override
+  public PyObject toFloat() {
+    try {
+      return make(Double.parseDouble(value().trim()));
+    } catch (NumberFormatException e) {
+      throw Py.valueError("invalid literal for float(): " + value());
+    }
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject add(PyObject other) {
+    if (other instanceof PyString) {
+      return concat((PyString) other);
+    }
+    return super.add(other);
+  }
+
+  public PyString concat(PyString other) {
+    if (length == 0) {
+      return other;
+    }
+    if (other.length == 0) {
+      return this;
+    }
+    if (length + other.length < MIN_ROPE_LENGTH) {
+      return make(value() + other.value());
+    }
+    return new PyString(this, other);
+  }
+  
+  @Override
+  public PyObject mul(PyObject other) {
+    if (other instanceof PyInt) {
+      int i = other.as_int();
+      if (i < 1) {
+        return EmptyString;
+      }
+      if (i == 1) {
+        return this;
+      }
+      String str = value();
+      StringBuilder b = new StringBuilder(length * i);
+      while (i > 0) {
+        b.append(str);
+        i--;
+      }
+      return make(b.toString());
+    }
+    return super.mul(other);
+  }
+  
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return make(length);
+  }
+
+  @Override
+  public PyObject getItem(PyObject key) {
+    int index = key.as_int();
+    if (index < 0) {
+      index += length;
+    }
+    if (index < 0 || index >= length) {
+      throw Py.indexError(key);
+    }
+    return valueOf(charAt(index));
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    return value().contains(key.str().value());
+  }
+
+  @Override
+  public PyObject getSlice(PyObject left, PyObject right) {
+    int length = this.length;
+    int leftIndex = left.as_int();
+    int rightIndex = right.as_int();
+    if (leftIndex < 0) {
+      leftIndex += length;
+      if (leftIndex < 0) {
+        leftIndex = 0;
+      }
+    } else if (leftIndex > length) {
+      leftIndex = length;
+    }
+    if (rightIndex < 0) {
+      rightIndex += length;
+      if (rightIndex < 0) {
+        rightIndex = 0;
+      }
+    } else if (rightIndex > length) {
+      rightIndex = length;
+    }
+    if (rightIndex - leftIndex < 1) {
+      return EmptyString;
+    }
+    return substring(leftIndex, rightIndex);
+  }
+
+  @Override
+  public PyIterator iter() {
+    return new PyIterator() {
+      private int index;
+
+      public PyObject next() {
+        if (index < length) {
+          return valueOf(charAt(index++));
+        }
+        return null;
+      }
+    };
+  }
+
+  @Override
+  public boolean exceptionType() {
+    return true;
+  }
+
+  @Override
+  public boolean exceptionMatches(PyObject object) {
+    return this.equals(object);
+  }
+}
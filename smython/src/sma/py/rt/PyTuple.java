@@ -1,205 +1,492 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import java.util.Iterator;
-
-public class PyTuple extends PyImmutableSeq implements Iterable<PyObject> {
-  private final PyObject[] objects;
-  private int hash;
-
-  public PyTuple(PyObject... objects) {
-    this.objects = objects;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    if (this == obj) {
-      return true;
-    }
-    if (obj instanceof PyTuple) {
-      Object[] o1 = objects;
-      Object[] o2 = ((PyTuple) obj).objects;
-      int len = o1.length;
-      if (len != o2.length) {
-        return false;
-      }
-      for (int i = 0; i < len; i++) {
-        if (!o1[i].equals(o2[i])) {
-          return false;
-        }
-      }
-      return true;
-    }
-    return false;
-  }
-
-  @Override
-  public int hashCode() {
-    int h = hash;
-    if (h == 0) {
-      for (PyObject object : objects) {
-        h = h << 3 ^ object.hashCode();
-      }
-      hash = h;
-    }
-    return h;
-  }
-
-  @Override
-  public int compareTo(PyObject o) {
-    if (this == o) {
-      return 0;
-    }
-    if (o instanceof PyTuple) {
-      PyObject[] o1 = objects;
-      PyObject[] o2 = ((PyTuple) o).objects;
-      int len1 = o1.length;
-      int len2 = o2.length;
-      int n = Math.min(len1, len2);
-      for (int i = 0; i < n; i++) {
-        int c = o1[i].compareTo(o2[i]);
-        if (c != 0) {
-          return c;
-        }
-      }
-      return len1 - len2;
-    }
-    return super.compareTo(o);
-  }
-
-  public int size() {
-    return objects.length;
-  }
-
-  public PyObject get(int index) {
-    return objects[index];
-  }
-
-  @Override
-  public String toString() {
-    StringBuilder b = new StringBuilder();
-    b.append('(');
-    for (int i = 0; i < objects.length; i++) {
-      if (i > 0) {
-        b.append(',').append(' ');
-      }
-      b.append(objects[i]);
-    }
-    if (objects.length == 1) {
-      b.append(',');
-    }
-    b.append(')');
-    return b.toString();
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  @Override
-  public PyObject len() {
-    return make(objects.length);
-  }
-
-  @Override
-  public PyObject getItem(PyObject key) {
-    int index = key.as_int();
-    if (index < 0) {
-      index += objects.length;
-    }
-    try {
-      return objects[index];
-    } catch (ArrayIndexOutOfBoundsException e) {
-      throw Py.indexError(key);
-    }
-  }
-
-  @Override
-  public boolean hasItem(PyObject key) {
-    for (PyObject obj : objects) {
-      if (obj.equals(key)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  @Override
-  public PyObject getSlice(PyObject left, PyObject right) {
-    int length = objects.length;
-    int leftIndex = left.as_int();
-    if (leftIndex < 0) {
-      leftIndex += length;
-      if (leftIndex < 0) {
-        leftIndex = 0;
-      }
-    } else if (leftIndex > length) {
-      leftIndex = length;
-    }
-    int rightIndex = right.as_int();
-    if (rightIndex < 0) {
-      rightIndex += length;
-      if (rightIndex < 0) {
-        rightIndex = 0;
-      }
-    } else if (rightIndex > length) {
-      rightIndex = length;
-    }
-    length = rightIndex - leftIndex;
-    if (length < 1) {
-      return EmptyTuple;
-    }
-    PyObject[] nobjects = new PyObject[length];
-    System.arraycopy(objects, leftIndex, nobjects, 0, length);
-    return new PyTuple(nobjects);
-  }
-
-  @Override
-  public PyIterator iter() {
-    return new PyIterator() {
-      private int index = 0;
-
-      public PyObject next() {
-        if (index < objects.length) {
-          return objects[index++];
-        }
-        return null;
-      }
-    };
-  }
-
-  // --------------------------------------------------------------------------------------------------------
-
-  PyTuple prepend(PyObject obj) {
-    int length = objects.length;
-    PyObject[] nobjects = new PyObject[length + 1];
-    nobjects[0] = obj;
-    System.arraycopy(objects, 0, nobjects, 1, length);
-    return new PyTuple(nobjects);
-  }
-
-  PyTuple append(PyObject obj) {
-    int length = objects.length;
-    PyObject[] nobjects = new PyObject[length + 1];
-    System.arraycopy(objects, 0, nobjects, 0, length);
-    nobjects[length] = obj;
-    return new PyTuple(nobjects);
-  }
-
-  public Iterator<PyObject> iterator() {
-    return new Iterator<PyObject>() {
-      private int index;
-      public boolean hasNext() {
-        return index < objects.length;
-      }
-
-      public PyObject next() {
-        return objects[index++];
-      }
-
-      public void remove() {
-        throw new UnsupportedOperationException();
-      }
-    };
-  }
-}
\ No newline at end of file
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import java.util.Iterator;
+
+/**
+ * Represents tuples. Tuples of up to three elements store them in fields, larger tuples in an
+ * array; use {@link #of(PyObject[])} to create the right kind. The hash code is computed once.
+ * <p>
+ * Because tuples are immutable, a slice of a larger tuple shares its array. Short slices are
+ * copied so they don't keep a large array alive.
+ */
+public abstract class PyTuple extends PyImmutableSeq implements Iterable<PyObject> {
+  private static final int MIN_SLICE_LENGTH = 16;
+
+  private int hash;
+
+  /**
+   * Returns a tuple of the given elements. The array is owned by the tuple.
+   */
+  public static PyTuple of(PyObject... objects) {
+    switch (objects.length) {
+    case 0:
+      return EmptyTuple;
+    case 1:
+      return new Single(objects[0]);
+    case 2:
+      return new Pair(objects[0], objects[1]);
+    case 3:
+      return new Triple(objects[0], objects[1], objects[2]);
+    default:
+      return new Array(objects);
+    }
+  }
+
+  public static PyTuple of(PyObject o0, PyObject o1) {
+    return new Pair(o0, o1);
+  }
+
+  public abstract int size();
+
+  public abstract PyObject get(int index);
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof PyTuple) {
+      PyTuple other = (PyTuple) obj;
+      int len = size();
+      if (len != other.size()) {
+        return false;
+      }
+      for (int i = 0; i < len; i++) {
+        if (!get(i).equals(other.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean eq(PyObject other) {
+    if (this == other) {
+      return true;
+    }
+    if (other instanceof PyTuple) {
+      PyTuple tuple = (PyTuple) other;
+      int len = size();
+      if (len != tuple.size()) {
+        return false;
+      }
+      for (int i = 0; i < len; i++) {
+        if (!get(i).eq(tuple.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      for (int i = 0, len = size(); i < len; i++) {
+        h = h << 3 ^ get(i).hashCode();
+      }
+      hash = h;
+    }
+    return h;
+  }
+
+  @Override
+  public int compareTo(PyObject o) {
+    if (this == o) {
+      return 0;
+    }
+    if (o instanceof PyTuple) {
+      PyTuple other = (PyTuple) o;
+      int len1 = size();
+      int len2 = other.size();
+      int n = Math.min(len1, len2);
+      for (int i = 0; i < n; i++) {
+        int c = get(i).compareTo(other.get(i));
+        if (c != 0) {
+          return c;
+        }
+      }
+      return len1 - len2;
+    }
+    return super.compareTo(o);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder b = new StringBuilder();
+    b.append('(');
+    int len = size();
+    for (int i = 0; i < len; i++) {
+      if (i > 0) {
+        b.append(',').append(' ');
+      }
+      b.append(get(i));
+    }
+    if (len == 1) {
+      b.append(',');
+    }
+    b.append(')');
+    return b.toString();
+  }
+
+  /**
+   * Returns the elements as a new array.
+   */
+  public PyObject[] toArray() {
+    PyObject[] objects = new PyObject[size()];
+    for (int i = 0; i < objects.length; i++) {
+      objects[i] = get(i);
+    }
+    return objects;
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  @Override
+  public PyObject len() {
+    return make(size());
+  }
+
+  @Override
+  public PyObject getItem(PyObject key) {
+    int index = key.as_int();
+    int len = size();
+    if (index < 0) {
+      index += len;
+    }
+    if (index < 0 || index >= len) {
+      throw Py.indexError(key);
+    }
+    return get(index);
+  }
+
+  @Override
+  public boolean hasItem(PyObject key) {
+    for (int i = 0, len = size(); i < len; i++) {
+      if (get(i).equals(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public PyObject getSlice(PyObject left, PyObject right) {
+    int length = size();
+    int leftIndex = left.as_int();
+    if (leftIndex < 0) {
+      leftIndex += length;
+      if (leftIndex < 0) {
+        leftIndex = 0;
+      }
+    } else if (leftIndex > length) {
+      leftIndex = length;
+    }
+    int rightIndex = right.as_int();
+    if (rightIndex < 0) {
+      rightIndex += length;
+      if (rightIndex < 0) {
+        rightIndex = 0;
+      }
+    } else if (rightIndex > length) {
+      rightIndex = length;
+    }
+    if (leftIndex == 0 && rightIndex == length) {
+      return this;
+    }
+    length = rightIndex - leftIndex;
+    if (length < 1) {
+      return EmptyTuple;
+    }
+    return slice(leftIndex, length);
+  }
+
+  /**
+   * Returns a tuple of the given number of elements starting at the given index.
+   */
+  PyTuple slice(int index, int length) {
+    PyObject[] nobjects = new PyObject[length];
+    for (int i = 0; i < length; i++) {
+      nobjects[i] = get(index + i);
+    }
+    return of(nobjects);
+  }
+
+  /**
+   * Returns a tuple of the given range of the array, sharing the array unless the range is short.
+   */
+  static PyTuple slice(PyObject[] objects, int offset, int length) {
+    if (length < MIN_SLICE_LENGTH || length < objects.length / 4) {
+      PyObject[] nobjects = new PyObject[length];
+      System.arraycopy(objects, offset, nobjects, 0, length);
+      return of(nobjects);
+    }
+    return new Slice(objects, offset, length);
+  }
+
+  @Override
+  public PyIterator iter() {
+    return new PyIterator() {
+      private int index = 0;
+
+      public PyObject next() {
+        if (index < size()) {
+          return get(index++);
+        }
+        return null;
+      }
+    };
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  PyTuple prepend(PyObject obj) {
+    int length = size();
+    PyObject[] nobjects = new PyObject[length + 1];
+    nobjects[0] = obj;
+    for (int i = 0; i < length; i++) {
+      nobjects[i + 1] = get(i);
+    }
+    return of(nobjects);
+  }
+
+  PyTuple append(PyObject obj) {
+    int length = size();
+    PyObject[] nobjects = new PyObject[length + 1];
+    for (int i = 0; i < length; i++) {
+      nobjects[i] = get(i);
+    }
+    nobjects[length] = obj;
+    return of(nobjects);
+  }
+
+  public Iterator<PyObject> iterator() {
+    return new Iterator<PyObject>() {
+      private int index;
+      public boolean hasNext() {
+        return index < size();
+      }
+
+      public PyObject next() {
+        return get(index++);
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  // --------------------------------------------------------------------------------------------------------
+
+  static final class Empty extends PyTuple {
+    @Override
+    public int size() {
+      return 0;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    PyTuple prepend(PyObject obj) {
+      return new Single(obj);
+    }
+
+    @Override
+    PyTuple append(PyObject obj) {
+      return new Single(obj);
+    }
+  }
+
+  static final class Single extends PyTuple {
+    private final PyObject o0;
+
+    Single(PyObject o0) {
+      this.o0 = o0;
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      if (index != 0) {
+        throw new IndexOutOfBoundsException();
+      }
+      return o0;
+    }
+
+    @Override
+    PyTuple prepend(PyObject obj) {
+      return new Pair(obj, o0);
+    }
+
+    @Override
+    PyTuple append(PyObject obj) {
+      return new Pair(o0, obj);
+    }
+  }
+
+  static final class Pair extends PyTuple {
+    private final PyObject o0;
+    private final PyObject o1;
+
+    Pair(PyObject o0, PyObject o1) {
+      this.o0 = o0;
+      this.o1 = o1;
+    }
+
+    @Override
+    public int size() {
+      return 2;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      switch (index) {
+      case 0:
+        return o0;
+      case 1:
+        return o1;
+      default:
+        throw new IndexOutOfBoundsException();
+      }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Pair) {
+        Pair other = (Pair) obj;
+        return this == other || o0.equals(other.o0) && o1.equals(other.o1);
+      }
+      return super.equals(obj);
+    }
+
+    @Override
+    PyTuple prepend(PyObject obj) {
+      return new Triple(obj, o0, o1);
+    }
+
+    @Override
+    PyTuple append(PyObject obj) {
+      return new Triple(o0, o1, obj);
+    }
+  }
+
+  static final class Triple extends PyTuple {
+    private final PyObject o0;
+    private final PyObject o1;
+    private final PyObject o2;
+
+    Triple(PyObject o0, PyObject o1, PyObject o2) {
+      this.o0 = o0;
+      this.o1 = o1;
+      this.o2 = o2;
+    }
+
+    @Override
+    public int size() {
+      return 3;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      switch (index) {
+      case 0:
+        return o0;
+      case 1:
+        return o1;
+      case 2:
+        return o2;
+      default:
+        throw new IndexOutOfBoundsException();
+      }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Triple) {
+        Triple other = (Triple) obj;
+        return this == other || o0.equals(other.o0) && o1.equals(other.o1) && o2.equals(other.o2);
+      }
+      return super.equals(obj);
+    }
+  }
+
+  static final class Array extends PyTuple {
+    private final PyObject[] objects;
+
+    Array(PyObject[] objects) {
+      this.objects = objects;
+    }
+
+    @Override
+    public int size() {
+      return objects.length;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      return objects[index];
+    }
+
+    @Override
+    public PyObject[] toArray() {
+      return objects.clone();
+    }
+
+    @Override
+    PyTuple slice(int index, int length) {
+      return slice(objects, index, length);
+    }
+  }
+
+  static final class Slice extends PyTuple {
+    private final PyObject[] objects;
+    private final int offset;
+    private final int length;
+
+    Slice(PyObject[] objects, int offset, int length) {
+      this.objects = objects;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int size() {
+      return length;
+    }
+
+    @Override
+    public PyObject get(int index) {
+      if (index >= length) {
+        throw new IndexOutOfBoundsException();
+      }
+      return objects[offset + index];
+    }
+
+    @Override
+    public PyObject[] toArray() {
+      PyObject[] nobjects = new PyObject[length];
+      System.arraycopy(objects, offset, nobjects, 0, length);
+      return nobjects;
+    }
+
+    @Override
+    PyTuple slice(int index, int length) {
+      return slice(objects, offset + index, length);
+    }
+  }
+}
@@ -1,121 +1,234 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py.rt;
-
-import sma.py.ast.PySuite;
-
-public class PyUserFunction extends PyFunction {
-  private final PyDict globals;
-  private final PyString name;
-  private final int nargs;
-  private final PyTuple params;
-  private final PyTuple defaults;
-  private final PyString rest;
-  private final PyString kwrest;
-  private final PySuite suite;
-
-  public PyUserFunction(PyDict globals, PyString name, int nargs, PyTuple params, PyTuple defaults, PyString rest, PyString kwrest, PySuite suite) {
-    this.globals = globals;
-    this.name = name;
-    this.nargs = nargs;
-    this.params = params;
-    this.defaults = defaults;
-    this.rest = rest;
-    this.kwrest = kwrest;
-    this.suite = suite;
-  }
-
-  @Override
-  public PyObject getAttr(PyString name) {
-    if (name == __NAME__) return name;
-    return super.getAttr(name);
-  }
-
-  @Override
-  public String toString() {
-    return "<function " + name.value() + ">";
-  }
-
-  @Override
-  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
-    frame = new PyFrame(frame, new PyDict(), globals);
-
-    int n = Math.min(params.size() , positionalArguments.size());
-
-    // bind as many positional arguments as possible
-    for (int i = 0; i < n; i++) {
-      bindArgument(params.get(i), positionalArguments.get(i), keywordArguments, frame);
-    }
-
-    // left over positional arguments are bound to a rest parameter
-    if (rest != null) {
-      frame.setLocal(rest, positionalArguments.getSlice(make(n), positionalArguments.len()));
-    } else if (positionalArguments.size() > n) {
-      throw Py.typeError("to many arguments");
-    }
-
-    // bind keyword parameters, otherwise supply default
-    for (int i = n, size = params.size(); i < size; i++) {
-      PyObject nameOrTuple = params.get(i);
-      if (nameOrTuple instanceof PyString) {
-        PyString name = (PyString) nameOrTuple;
-        PyObject value = keywordArguments.getItem(name);
-        if (value == null) {
-          if (i < nargs) {
-            throw Py.typeError("not enough parameters");
-          }
-          value = defaults.get(i - nargs);
-        } else {
-          keywordArguments.delItem(name);
-        }
-        frame.setLocal(name, value);
-      } else {
-        PyTuple tuple = (PyTuple) nameOrTuple;
-        PyTuple values = (PyTuple) keywordArguments.getItem(name); //TODO cast may fail
-        if (values == null) {
-          if (i < nargs) {
-            throw Py.typeError("not enough parameters");
-          }
-          values = (PyTuple) defaults.get(i - nargs); //TODO cast may fail
-        } else {
-          keywordArguments.delItem(name);
-        }
-        for (int j = 0, len = tuple.size(); j < len; j++) {
-          bindArgument(tuple.get(j), values.get(j), keywordArguments, frame);
-        }
-      }
-    }
-
-    // left over keyword arguments are bound to a rest parameter
-    if (kwrest != null) {
-      frame.setLocal(kwrest, keywordArguments);
-    } else if (keywordArguments.size() > 0) {
-      throw Py.typeError("too many keyword arguments");
-    }
-
-    // execute the function
-    try {
-      suite.execute(frame);
-    } catch (Py.ReturnSignal s) {
-      return s.getResult();
-    }
-    return None;
-  }
-
-  private static void bindArgument(PyObject nameOrTuple, PyObject argument, PyDict kwargs, PyFrame frame) {
-    if (nameOrTuple instanceof PyString) {
-      PyString name = (PyString) nameOrTuple;
-      frame.setLocal(name, argument);
-      if (kwargs.getItem(name) != null) {
-        throw Py.typeError("multiple values for '" + name + "'");
-      }
-    } else {
-      PyTuple tuple = (PyTuple) nameOrTuple;
-      PyTuple values = (PyTuple) argument; //TODO cast may fail
-      for (int j = 0, len = tuple.size(); j < len; j++) {
-        bindArgument(tuple.get(j), values.get(j), kwargs, frame);
-      }
-    }
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py.rt;
+
+import sma.py.ast.PyCompiler;
+import sma.py.ast.PyStmt;
+import sma.py.ast.PySuite;
+
+public class PyUserFunction extends PyFunction {
+  private final PyDict globals;
+  private final PyString name;
+  private final int nargs;
+  private final PyTuple params;
+  private final PyTuple defaults;
+  private final PyString rest;
+  private final PyString kwrest;
+  private final PySuite suite;
+  private final PyString[] varnames;
+  private final int arity; // number of parameters if all are simple, otherwise -1
+  private int calls;
+  private volatile PyCompiledCode code;
+
+  /**
+   * Constructs a new function. The given variable names determine the slots of the function's
+   * frames. The first slots must be reserved for the parameters, in order.
+   */
+  public PyUserFunction(PyDict globals, PyString name, int nargs, PyTuple params, PyTuple defaults, PyString rest, PyString kwrest, PySuite suite, PyString[] varnames) {
+    this.globals = globals;
+    this.name = name;
+    this.nargs = nargs;
+    this.params = params;
+    this.defaults = defaults;
+    this.rest = rest;
+    this.kwrest = kwrest;
+    this.suite = suite;
+    this.varnames = varnames;
+    this.arity = rest == null && kwrest == null && simpleParameters(params) ? params.size() : -1;
+  }
+
+  private static boolean simpleParameters(PyTuple params) {
+    for (PyObject param : params) {
+      if (!(param instanceof PyString)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public PyString getName() {
+    return name;
+  }
+
+  public PySuite getSuite() {
+    return suite;
+  }
+
+  /**
+   * Replaces the interpreted function body with the given compiled code.
+   */
+  public void setCode(PyCompiledCode code) {
+    this.code = code;
+  }
+
+  @Override
+  public PyObject getAttr(PyString name) {
+    if (name == __NAME__) return name;
+    return super.getAttr(name);
+  }
+
+  @Override
+  public String toString() {
+    return "<function " + name.value() + ">";
+  }
+
+  @Override
+  public PyObject apply(PyFrame frame, PyTuple positionalArguments, PyDict keywordArguments) {
+    frame = new PyFrame(frame, varnames, globals);
+
+    int n = Math.min(params.size() , positionalArguments.size());
+
+    // bind as many positional arguments as possible
+    for (int i = 0; i < n; i++) {
+      PyObject nameOrTuple = params.get(i);
+      if (nameOrTuple instanceof PyString) {
+        bindParameter(i, (PyString) nameOrTuple, positionalArguments.get(i), keywordArguments, frame);
+      } else {
+        bindArgument(nameOrTuple, positionalArguments.get(i), keywordArguments, frame);
+      }
+    }
+
+    // left over positional arguments are bound to a rest parameter
+    if (rest != null) {
+      frame.setLocal(rest, positionalArguments.getSlice(make(n), positionalArguments.len()));
+    } else if (positionalArguments.size() > n) {
+      throw Py.typeError("to many arguments");
+    }
+
+    // bind keyword parameters, otherwise supply default
+    for (int i = n, size = params.size(); i < size; i++) {
+      PyObject nameOrTuple = params.get(i);
+      if (nameOrTuple instanceof PyString) {
+        PyString name = (PyString) nameOrTuple;
+        PyObject value = keywordArguments.getItem(name);
+        if (value == null) {
+          if (i < nargs) {
+            throw Py.typeError("not enough parameters");
+          }
+          value = defaults.get(i - nargs);
+        } else {
+          keywordArguments.delItem(name);
+        }
+        frame.setFast(i, value);
+      } else {
+        PyTuple tuple = (PyTuple) nameOrTuple;
+        PyTuple values = (PyTuple) keywordArguments.getItem(name); //TODO cast may fail
+        if (values == null) {
+          if (i < nargs) {
+            throw Py.typeError("not enough parameters");
+          }
+          values = (PyTuple) defaults.get(i - nargs); //TODO cast may fail
+        } else {
+          keywordArguments.delItem(name);
+        }
+        for (int j = 0, len = tuple.size(); j < len; j++) {
+          bindArgument(tuple.get(j), values.get(j), keywordArguments, frame);
+        }
+      }
+    }
+
+    // left over keyword arguments are bound to a rest parameter
+    if (kwrest != null) {
+      frame.setLocal(kwrest, keywordArguments);
+    } else if (keywordArguments.size() > 0) {
+      throw Py.typeError("too many keyword arguments");
+    }
+
+    return execute(frame);
+  }
+
+  // If the function has neither default values to supply nor rest parameters or nested parameter
+  // lists, positional arguments are directly bound to the frame's slots.
+
+  @Override
+  public PyObject invoke(PyFrame frame) {
+    if (arity == 0) {
+      return execute(new PyFrame(frame, varnames, globals));
+    }
+    return super.invoke(frame);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0) {
+    if (arity == 1) {
+      frame = new PyFrame(frame, varnames, globals);
+      frame.setFast(0, arg0);
+      return execute(frame);
+    }
+    return super.invoke(frame, arg0);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1) {
+    if (arity == 2) {
+      frame = new PyFrame(frame, varnames, globals);
+      frame.setFast(0, arg0);
+      frame.setFast(1, arg1);
+      return execute(frame);
+    }
+    return super.invoke(frame, arg0, arg1);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject arg0, PyObject arg1, PyObject arg2) {
+    if (arity == 3) {
+      frame = new PyFrame(frame, varnames, globals);
+      frame.setFast(0, arg0);
+      frame.setFast(1, arg1);
+      frame.setFast(2, arg2);
+      return execute(frame);
+    }
+    return super.invoke(frame, arg0, arg1, arg2);
+  }
+
+  @Override
+  public PyObject invoke(PyFrame frame, PyObject[] arguments) {
+    if (arity == arguments.length) {
+      frame = new PyFrame(frame, varnames, globals);
+      for (int i = 0; i < arguments.length; i++) {
+        frame.setFast(i, arguments[i]);
+      }
+      return execute(frame);
+    }
+    return apply(frame, PyTuple.of(arguments), new PyDict());
+  }
+
+  /**
+   * Executes the function body with all arguments already bound. Once the function has been called
+   * often enough, it gets compiled and the compiled code is executed from then on.
+   */
+  private PyObject execute(PyFrame frame) {
+    PyCompiledCode code = this.code;
+    if (code != null) {
+      return code.execute(frame);
+    }
+    if (++calls == PyCompiler.THRESHOLD) {
+      PyCompiler.compileLater(this);
+    }
+    return PyStmt.result(suite.execute(frame));
+  }
+
+  private static void bindParameter(int index, PyString name, PyObject argument, PyDict kwargs, PyFrame frame) {
+    frame.setFast(index, argument);
+    if (kwargs.getItem(name) != null) {
+      throw Py.typeError("multiple values for '" + name + "'");
+    }
+  }
+
+  private static void bindArgument(PyObject nameOrTuple, PyObject argument, PyDict kwargs, PyFrame frame) {
+    if (nameOrTuple instanceof PyString) {
+      PyString name = (PyString) nameOrTuple;
+      frame.setLocal(name, argument);
+      if (kwargs.getItem(name) != null) {
+        throw Py.typeError("multiple values for '" + name + "'");
+      }
+    } else {
+      PyTuple tuple = (PyTuple) nameOrTuple;
+      PyTuple values = (PyTuple) argument; //TODO cast may fail
+      for (int j = 0, len = tuple.size(); j < len; j++) {
+        bindArgument(tuple.get(j), values.get(j), kwargs, frame);
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py;
+
+import junit.framework.TestCase;
+import sma.py.ast.PyCompiler;
+import sma.py.rt.PyCompiledCode;
+import sma.py.rt.PyUserFunction;
+
+public class CompilerTest extends TestCase {
+
+  public void testArithmetic() {
+    assertCompiled("def f(a, b):\n return a + b * 2 - -a, a % 3, a << 2\n", "f(7, 3)");
+  }
+
+  public void testRecursion() {
+    assertCompiled("def f(n):\n if n < 2: return n\n return f(n - 1) + f(n - 2)\n", "f(15)");
+  }
+
+  public void testLoops() {
+    assertCompiled("def f(n):\n" +
+        " s = 0\n" +
+        " while n:\n" +
+        "  n = n - 1\n" +
+        "  if n == 3: continue\n" +
+        "  if n == 10: break\n" +
+        "  s = s + n\n" +
+        " else:\n" +
+        "  s = -s\n" +
+        " for i, j in [(1, 2), (3, 4)]:\n" +
+        "  s = s + i * j\n" +
+        " return s\n", "f(8), f(20)");
+  }
+
+  public void testBooleans() {
+    assertCompiled("def f(a, b):\n return a and b, a or b, not a, 1 < a <= b, a in [b], a is not b\n", "f(1, 2), f(0, 2)");
+  }
+
+  public void testConditions() {
+    assertCompiled("def f(a, b):\n" +
+        " n = 0\n" +
+        " while a < b and not a == 5 or n > 10: a = a + 1; n = n + 1\n" +
+        " if 0 < n <= 3 or a in [9]: return n\n" +
+        " return -n\n", "f(0, 9), f(7, 9), f(6, 8), f(1, 4)");
+  }
+
+  public void testInterpretedStatements() {
+    assertCompiled("def f(a):\n" +
+        " for i in range(5):\n" +
+        "  try:\n" +
+        "   if i == a: break\n" +
+        "  finally:\n" +
+        "   pass\n" +
+        " try:\n" +
+        "  return i\n" +
+        " finally:\n" +
+        "  pass\n", "f(3), f(9)");
+  }
+
+  public void testRangeLoops() {
+    assertCompiled("def f(a):\n" +
+        " n = 0\n" +
+        " for i in range(a, 0, -1): n = n + i\n" +
+        " for i in xrange(a): n = n * 2\n" +
+        " r = range\n" +
+        " for i in r(a): n = n - i\n" +
+        " return n, range(a)\n", "f(3), f(0)");
+  }
+
+  public void testSequenceLoops() {
+    assertCompiled("def f(a):\n" +
+        " n = ''\n" +
+        " for c in a: n = n + c + c\n" +
+        " m = 0\n" +
+        " for k, v in {1: 2, 3: 4}: m = m + k * v\n" +
+        " for t in [(1,), (2,)]: m = m + t[0]\n" +
+        " return n, m\n", "f('ab'), f('')");
+  }
+
+  public void testDataStructures() {
+    assertCompiled("def f(a):\n" +
+        " d = {'a': a, 'b': [a, (a,)]}\n" +
+        " d['c'] = `a`\n" +
+        " return d['b'][1], d['c'], len(d)\n", "f(42)");
+  }
+
+  public void testMethodCalls() {
+    assertCompiled("class A:\n" +
+        " def m(self, a, b, c): return a + b + c\n" +
+        " def n(self): return self.m(1, 2, 3)\n" +
+        "a = A()\n" +
+        "a.o = a.n\n" +
+        "def f(a):\n" +
+        " return a.n(), a.m(4, 5, 6), a.o(), A.n(a)\n", "f(a)");
+  }
+
+  private void assertCompiled(String def, String expr) {
+    Interpreter interpreter = new Interpreter();
+    interpreter.execute(def);
+    String expected = interpreter.eval(expr).repr().value();
+    PyUserFunction function = (PyUserFunction) interpreter.eval("f");
+    PyCompiledCode code = PyCompiler.compile(function.getName(), function.getSuite());
+    assertNotNull(code);
+    function.setCode(code);
+    assertEquals(expected, interpreter.eval(expr).repr().value());
+  }
+}
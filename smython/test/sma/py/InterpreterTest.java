@@ -1,12 +1,38 @@
-/*
- * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
- */
-package sma.py;
-
-import junit.framework.TestCase;
-
-public class InterpreterTest extends TestCase {
-  public void testEmpty() {
-    assertNotNull(new Interpreter());
-  }
-}
+/*
+ * Copyright (c) 2007, Stefan Matthias Aust. All rights reserved. See LICENSE.txt.
+ */
+package sma.py;
+
+import junit.framework.TestCase;
+
+public class InterpreterTest extends TestCase {
+  public void testEmpty() {
+    assertNotNull(new Interpreter());
+  }
+
+  public void testCodeCache() {
+    CodeCache cache = new CodeCache(2);
+    assertSame(cache.suite("a = 1"), cache.suite("a = 1"));
+    assertSame(cache.expr("a"), cache.expr("a"));
+    assertEquals(2, cache.getHits());
+    assertEquals(2, cache.getMisses());
+    cache.suite("a = 1");
+    cache.suite("b");
+    assertEquals(2, cache.size());
+    cache.suite("a = 1");
+    cache.expr("a");
+    assertEquals(4, cache.getHits());
+    assertEquals(4, cache.getMisses());
+  }
+
+  public void testFinallyAfterError() {
+    Interpreter i = new Interpreter();
+    i.execute("a = 0\ndef f(): return f()\n");
+    try {
+      i.execute("try:\n f()\nfinally:\n a = a + 1\n");
+      fail();
+    } catch (StackOverflowError e) {
+      assertEquals("1", i.eval("a").repr().value());
+    }
+  }
+}
@@ -1,40 +1,112 @@
-### abs - absolute value of a number
-
->>> abs(0)
-0
->>> abs(42)
-42
->>> abs(-1)
-1
->>> abs(-12345678901234567890)
-12345678901234567890L
->>> class A:
-...   def __abs__(self): return 42
->>> abs(A())
-42
-
-### apply - call a callable object
-
-### chr - int to string
-
-### cmp - compare two objects
-
-### ...
-
-### tuple - convert any sequence into a tuple
-
->>> tuple("")
-()
->>> tuple("abc")
-('a', 'b', 'c')
->>> tuple(())
-()
->>> tuple((1,))
-(1,)
->>> tuple((1, 2, 3))
-(1, 2, 3)
->>> tuple([])
-()
->>> tuple([1,2])
-(1, 2)
+### abs - absolute value of a number
+
+>>> abs(0)
+0
+>>> abs(42)
+42
+>>> abs(-1)
+1
+>>> abs(-12345678901234567890)
+12345678901234567890L
+>>> class A:
+...   def __abs__(self): return 42
+>>> abs(A())
+42
+
+### apply - call a callable object
+
+### chr - int to string
+
+### cmp - compare two objects
+
+### ...
+
+### range, xrange - sequences of ints
+
+>>> range(4)
+[0, 1, 2, 3]
+>>> range(2, 5)
+[2, 3, 4]
+>>> range(1, 10, 3)
+[1, 4, 7]
+>>> range(5, 0, -2)
+[5, 3, 1]
+>>> range(3, 3)
+[]
+>>> range(0)
+[]
+>>> try: range(1, 2, 0)
+... except ValueError: a = 1
+>>> a
+1
+>>> xrange(4)
+xrange(4)
+>>> xrange(1, 10, 3)
+xrange(1, 10, 3)
+>>> xrange(1, 11, 3)
+xrange(1, 13, 3)
+>>> len(xrange(1, 10, 3)), len(xrange(10, 1)), len(xrange(10, 1, -4))
+(3, 0, 3)
+>>> r = xrange(10, 1, -4)
+>>> r[0], r[2], r[-1], r[-3]
+(10, 2, 2, 10)
+>>> try: r[3]
+... except IndexError: a = 2
+>>> a
+2
+>>> 6 in r, 7 in r, 14 in r, -2 in r, 'a' in r
+(1, 0, 0, 0, 0)
+>>> type(xrange(3))
+'xrange'
+
+### set, frozenset - create sets
+
+>>> s = set([3, 1, 2, 3]); s, len(s), type(s), set(), frozenset('aba')
+(set([1, 2, 3]), 3, 'set', set([]), frozenset(['a', 'b']))
+>>> 1 in s, 4 in s, 4 not in s, 'a' in s, s and 1
+(1, 0, 1, 0, 1)
+>>> 1.0 in s, 2L in s, 1 in set([1.0]), 2 ** 40 in set([2.0 ** 40]), len(set([1, 1.0, 1L])), s == set([1.0, 2L, 3])
+(1, 1, 1, 1, 1, 1)
+>>> s.add(4); s.add(1); s.discard(2); s.discard(5); s
+set([1, 3, 4])
+>>> try: s.remove(2)
+... except KeyError: a = 3
+>>> a
+3
+>>> t = set(range(2, 6)); s | t, s & t, s - t, t - s
+(set([1, 2, 3, 4, 5]), set([3, 4]), set([1]), set([2, 5]))
+>>> s.union([9, 1]), s.intersection((4, 1, 7)), s.difference('x'), s == set([4, 3, 1]), s == t
+(set([1, 3, 4, 9]), set([1, 4]), set([1, 3, 4]), 1, 0)
+>>> f = frozenset(s); s.add(8); f, frozenset(f) is f, {f: 1}[frozenset([1, 3, 4])], f | s
+(frozenset([1, 3, 4]), 1, 1, frozenset([1, 3, 4, 8]))
+>>> try: f.add(2)
+... except AttributeError: a = 4
+>>> a
+4
+>>> s = set()
+>>> for i in range(1000): s.add(i * 7 % 1000)
+>>> for i in range(0, 1000, 2): s.discard(i)
+>>> len(s), 501 in s, 500 in s, len(s & set(range(0, 1000, 3))), len(s | set(range(1000)))
+(500, 1, 0, 167, 1000)
+>>> n = 0
+>>> for x in s: n = n + x
+>>> n
+250000
+
+### tuple - convert any sequence into a tuple
+
+>>> tuple("")
+()
+>>> tuple("abc")
+('a', 'b', 'c')
+>>> tuple(())
+()
+>>> tuple((1,))
+(1,)
+>>> tuple((1, 2, 3))
+(1, 2, 3)
+>>> tuple([])
+()
+>>> tuple([1,2])
+(1, 2)
  
\ No newline at end of file
@@ -1,587 +1,886 @@
-### literals/numbers
-
->>> 0
-0
->>> 42L
-42L
->>> 1000000000000
-1000000000000L
->>> 99999999999999999L
-99999999999999999L
->>> 011
-9
->>> 012L
-10L
->>> 0xAB
-171
->>> 0xFFFFFFFFFFFFFFFF
-18446744073709551615L
->>> 2147483647
-2147483647
->>> 2147483648
-2147483648L
-
-### literals/strings
-
->>> ''
-''
->>> ""
-''
->>> 'Hello'
-'Hello'
->>> "World"
-'World'
->>> r''
-''
->>> r""
-''
->>> r'\n'
-'\n'
->>> r"\n"
-'\n'
->>> """
-... hallo
-... """
-'\nhallo\n'
-
-### atoms/parenthesized forms
-
->>> ()
-()
->>> (1,)
-(1,)
->>> (1,"2")
-(1, '2')
->>> (1,"2",)
-(1, '2')
->>> ((1,), ("2",), )
-((1,), ('2',))
-
-### atoms/list displays
-
->>> []
-[]
->>> [1]
-[1]
->>> [1,]
-[1]
->>> [1,"2"]
-[1, '2']
->>> [1,"2",]
-[1, '2']
->>> [[1,], ["2",], ]
-[[1], ['2']]
-
-### atoms/dictionary displays
-
->>> {}
-{}
->>> {1: "one"}
-{1: 'one'}
->>> {1: "one",}
-{1: 'one'}
->>> {1: 1, 2: "2", 3: (3,)}
-{1: 1, 2: '2', 3: (3,)}
->>> {'a':1, 'b':2}
-{'a': 1, 'b': 2}
->>> {(7,):1, (3, 4):2}
-{(3, 4): 2, (7,): 1}
-
-### atoms/string conversions
-
->>> `1`
-'1'
->>> `1, 2`
-'(1, 2)'
->>> `1, "2", (())`
-"(1, '2', ())"
-
-### primary/subscription/tuple
-
->>> t = (1, 2, 3)
->>> t[0]
-1
->>> t[1]
-2
->>> t[2]
-3
->>> t[-1], t[-2], t[-3]
-(3, 2, 1)
-
-# primary/subscription/tuple/invalid
-
->>> a = 0
->>> try:
-...   (1,)[1]
-... except IndexError:
-...   a = 1
->>> a
-1
->>> try:
-...   ()[0]
-... except IndexError:
-...   a = 2
->>> a
-2
-
-### primary/subscription/string
-
->>> s = "ab"
->>> s[0]
-'a'
->>> s[1]
-'b'
->>> s[-1], s[-2]
-('b', 'a')
-
-### primary/subscription/string/invalid
-
->>> a = 0
->>> try:
-...   "abc"[-4]
-... except IndexError:
-...   a = 1
->>> a
-1
->>> try:
-...   "abc"[4]
-... except IndexError:
-...   a = 2
->>> a
-2
-
-### primary/subscription/list
-
->>> l = [3, 4]
->>> l[0], l[1], l[-1], l[-2]
-(3, 4, 4, 3)
->>> l[0] = 5; l
-[5, 4]
->>> l[1] = 6; l
-[5, 6]
->>> l[-1] = 8; l[-2] = 7; l
-[7, 8]
-
-### primary/subscription/list/invalid
-
->>> a = 0
->>> try:
-...   [1,2][-3]
-... except IndexError:
-...   a = 1
->>> a
-1
->>> try:
-...   [1][1] = 2
-... except IndexError:
-...   a = 2
->>> a
-2
-
-### primary/subscription/dictionary
-
->>> d = {'one': 1, 'two': 2}
->>> d['one']
-1
->>> d['two']
-2
->>> d['one'] = -1
->>> d['two'] = -2
->>> d
-{'one': -1, 'two': -2}
->>> {1: 'ok'}[1]
-'ok'
->>> {(1,): 'ok'}[1,]
-'ok'
->>> {(1,2): 'ok'}[1,2]
-'ok'
->>> d = {}
->>> d[1] = 'one'
->>> d[2,] = 'two'
->>> d[1], d[(2,)]
-('one', 'two')
-
-### primary/subscription/dictionary/invalid
-
->>> a = 0
->>> try:
-...  {'a': 1}['b']
-... except KeyError:
-...  a = 1
->>> a
-1
-
-### primary/slicing/tuple
-
->>> t = (1, 2, 3, 4, 5)
->>> t[:]
-(1, 2, 3, 4, 5)
->>> t[2:]
-(3, 4, 5)
->>> t[-2:]
-(4, 5)
->>> t[0:1]
-(1,)
->>> t[0:0]
-()
->>> t[4:8]
-(5,)
->>> t[2:1]
-()
-
-### primary/slicing/string
->>> s = "abcd"
->>> s[:]
-'abcd'
->>> s[2:]
-'cd'
->>> s[:2]
-'ab'
->>> s[2:2]
-''
->>> s[2:3]
-'c'
->>> s[3:6]
-'d'
->>> s[3:2]
-''
->>> s[:-1]
-'abc'
->>> s[0:0]
-''
-
-### primary/slicing/list
-
->>> l = [1, 2, 4, 8]
->>> l[:]
-[1, 2, 4, 8]
->>> l[:] is not l
-1
->>> l[3:]
-[8]
->>> l[-2:]
-[4, 8]
->>> l[2:-1]
-[4]
->>> l[-1:4]
-[8]
->>> l[-9:9]
-[1, 2, 4, 8]
->>> l[6:2]
-[]
-
-### primary/slicing/list/assign
-
->>> l = [1, 2]; l[:] = [3]; l
-[3]
->>> l = [1, 2, 3, 4]; l[:2] = []; l
-[3, 4]
->>> l = [1, 2]; l[1:1] = [3]; l
-[1, 3, 2]
->>> l = [1]; l[3:2] = [4]; l
-[1, 4]
->>> l = [1]; l[0:0] = [4]; l
-[4, 1]
-
-### primary/slicing/dictionary
-
->>> a = 0
->>> try: {}[:]
-... except TypeError: a = 1
->>> a
-1
->>> try: {}[:] = {'a': 1}
-... except TypeError: a = 2
->>> a
-2
-
-### expr/power
->>> 2 ** 0
-1
->>> 2 ** 8
-256
->>> 2 ** 50
-1125899906842624L
->>> 2 ** 200
-1606938044258990275541962092341162602522202993782792835301376L
-
-### expr/unary arithmetic
-
->>> -0
-0
->>> +0
-0
->>> -1
--1
->>> --1
-1
->>> +1
-1
->>> +-1
--1
->>> ~3
--4
->>> ~-3
-2
->>> -1000000000000000000000
--1000000000000000000000L
->>> +1000000000000000000000
-1000000000000000000000L
->>> ~1000000000000000000000
--1000000000000000000001L
->>> -2147483648
--2147483648
-
-### expr/binary arithmetic/numbers
-
->>> 3+4
-7
->>> 3-4
--1
->>> 3*4
-12
->>> 3/4
-0
->>> 3%4
-3
->>> 2147483647+1
-2147483648L
->>> -2147483648+1
--2147483647
->>> -2147483648-1
--2147483649L
->>> 100000*100000
-10000000000L
->>> 1+2*3
-7
->>> 1*2+3
-5
->>> (1+2)*3
-9
->>> 1*(2+4)
-6
->>> 1+2+3+4
-10
->>> 100/9/9
-1
->>> 8589934592L + 4
-8589934596L
->>> 4 + 8589934592L
-8589934596L
->>> 8589934592L + 8589934592L
-17179869184L
->>> 8589934592L * 8589934592L
-73786976294838206464L
->>> (-2147483647-1)/-1
-2147483648L
->>> 1L - 2, 1 - 2L, 1L - 2L
-(-1L, -1L, -1L)
->>> 1L + 2, 1 + 2L, 1L + 2L
-(3L, 3L, 3L)
->>> 4L / 3L
-1L
->>> 4L % 3L
-1L
-
-### expr/binary arithmetic/numbers/div
->>> -3 / 3, -2 / 3, -1 / 3, 0 / 3, 1 / 3, 2 / 3, 3 / 3
-(-1, -1, -1, 0, 0, 0, 1)
->>> -3 / -3, -2 / -3, -1 / -3, 0 / -3, 1 / -3, 2 / -3, 3 / -3
-(1, 0, 0, 0, -1, -1, -1)
->>> -3L / 3, -2L / 3, -1L / 3, 0L / 3, 1L / 3, 2L / 3, 3L / 3
-(-1L, -1L, -1L, 0L, 0L, 0L, 1L)
->>> -3 / -3L, -2 / -3L, -1 / -3L, 0 / -3L, 1 / -3L, 2 / -3L, 3 / -3L
-(1L, 0L, 0L, 0L, -1L, -1L, -1L)
-
-### expr/binary arithmetic/numbers/mod
->>> -3 % 3, -2 % 3, -1 % 3, 0 % 3, 1 % 3, 2 % 3, 3 % 3
-(0, 1, 2, 0, 1, 2, 0)
->>> -3 % -3, -2 % -3, -1 % -3, 0 % -3, 1 % -3, 2 % -3, 3 % -3
-(0, -2, -1, 0, -2, -1, 0)
->>> -3 % 3L, -2 % 3L, -1 % 3L, 0 % 3L, 1 % 3L, 2 % 3L, 3 % 3L
-(0L, 1L, 2L, 0L, 1L, 2L, 0L)
->>> -3L % -3, -2L % -3, -1L % -3, 0L % -3, 1L % -3, 2L % -3, 3L % -3
-(0L, -2L, -1L, 0L, -2L, -1L, 0L)
-
-
-### expr/binary arithmetic/strings
-
->>> 'foo' + "bar"
-'foobar'
->>> 'foo' * 0
-''
->>> "foo" * 3
-'foofoofoo'
-
-### expr/shifts
-
->>> 1 << 0
-1
->>> 1 << 10
-1024
->>> 1 << 100
-1267650600228229401496703205376L
->>> 256 >> 0
-256
->>> 256 >> 3
-32
->>> 1L << 2
-4L
->>> 4L >> 1
-2L
->>> 1267650600228229401496703205376L >> 99
-2L
-
-### expr/bit-wise operations
-
->>> 3 & 1
-1
->>> 3 | 4
-7
->>> 3 ^ 1
-2
-
-### expr/comparisons/ints
-
->>> 1 < 2
-1
->>> 1 > 2
-0
->>> 1 <= 2
-1
->>> 1 >= 2
-0
->>> 1 == 2
-0
->>> 1 != 2
-1
->>> 1 <> 2
-1
->>> 1 < 3 < 5
-1
->>> 1 < 5 < 3
-0
-
-### expr/comparisons/tuple
-
->>> () == ()
-1
->>> (1,) == (1,)
-1
->>> (1,(2,)) == (1,(2,))
-1
->>> () != (1,)
-1
->>> (1,) != ()
-1
->>> (1,2) != (2,1)
-1
->>> (1,) < (1,2)
-1
->>> (1,) > (1,2)
-0
-
-### expr/identity comparisons
-
->>> t = (1, 2)
->>> t is t
-1
->>> t is ()
-0
->>> t is (1, 2)
-0
->>> t is not t
-0
->>> t is not ()
-1
->>> t is not (1, 2)
-1
-
-### expr/containment/tuple
-
->>> t = (1, 2)
->>> 2 in t, 3 in t
-(1, 0)
->>> 2 not in t, 3 not in t
-(0, 1)
-
-### expr/containment/string
-
->>> s = "foobar"
->>> "o" in s
-1
->>> "oob" in s
-1
->>> "e" in s
-0
->>> "baz" in s
-0
-
-### expr/containment/list
-
->>> l = [1, 2]
->>> 2 in l, 3 in l
-(1, 0)
->>> 2 not in l, 3 not in l
-(0, 1)
-
-### expr/containment/dictionary
-
->>> d = {1: 2, 3: 4}
->>> 1 in d, 2 in d, 3 in d, 4 in d
-(1, 0, 1, 0)
->>> 1 not in d, 2 not in d, 3 not in d, 4 not in d
-(0, 1, 0, 1)
-
-### expr/boolsche operations/not
-
->>> not ""
-1
->>> not ()
-1
->>> not []
-1
->>> not {}
-1
->>> not 0
-1
->>> not "true"
-0
->>> not (1,)
-0
->>> not ["", ()]
-0
->>> not {1: ()}
-0
->>> not 4711
-0
->>> not 1 == 2
-1
->>> not 1 == 1
-0
->>> not 1 > -1
-0
->>> (not 1) > -1
-1
-
-### expr/boolsche operations/and
-
->>> "x" and "y"
-'y'
->>> "" and "y"
-''
-
-### expr/boolsche operations/or
-
->>> "x" or "y"
-'x'
->>> "" or "y"
-'y'
-
-### expr/expression lists
->>> a = 1,
->>> a
-(1,)
->>> a = 1, 2,
->>> a
-(1, 2)
+### literals/numbers
+
+>>> 0
+0
+>>> 42L
+42L
+>>> 1000000000000
+1000000000000L
+>>> 99999999999999999L
+99999999999999999L
+>>> 011
+9
+>>> 012L
+10L
+>>> 0xAB
+171
+>>> 0xFFFFFFFFFFFFFFFF
+18446744073709551615L
+>>> 2147483647
+2147483647
+>>> 2147483648
+2147483648L
+
+### literals/strings
+
+>>> ''
+''
+>>> ""
+''
+>>> 'Hello'
+'Hello'
+>>> "World"
+'World'
+>>> r''
+''
+>>> r""
+''
+>>> r'\n'
+'\n'
+>>> r"\n"
+'\n'
+>>> """
+... hallo
+... """
+'\nhallo\n'
+
+### atoms/parenthesized forms
+
+>>> ()
+()
+>>> (1,)
+(1,)
+>>> (1,"2")
+(1, '2')
+>>> (1,"2",)
+(1, '2')
+>>> ((1,), ("2",), )
+((1,), ('2',))
+
+### atoms/list displays
+
+>>> []
+[]
+>>> [1]
+[1]
+>>> [1,]
+[1]
+>>> [1,"2"]
+[1, '2']
+>>> [1,"2",]
+[1, '2']
+>>> [[1,], ["2",], ]
+[[1], ['2']]
+
+### atoms/dictionary displays
+
+>>> {}
+{}
+>>> {1: "one"}
+{1: 'one'}
+>>> {1: "one",}
+{1: 'one'}
+>>> {1: 1, 2: "2", 3: (3,)}
+{1: 1, 2: '2', 3: (3,)}
+>>> {'a':1, 'b':2}
+{'a': 1, 'b': 2}
+>>> {(7,):1, (3, 4):2}
+{(3, 4): 2, (7,): 1}
+
+### atoms/string conversions
+
+>>> `1`
+'1'
+>>> `1, 2`
+'(1, 2)'
+>>> `1, "2", (())`
+"(1, '2', ())"
+
+### primary/subscription/tuple
+
+>>> t = (1, 2, 3)
+>>> t[0]
+1
+>>> t[1]
+2
+>>> t[2]
+3
+>>> t[-1], t[-2], t[-3]
+(3, 2, 1)
+
+# primary/subscription/tuple/invalid
+
+>>> a = 0
+>>> try:
+...   (1,)[1]
+... except IndexError:
+...   a = 1
+>>> a
+1
+>>> try:
+...   ()[0]
+... except IndexError:
+...   a = 2
+>>> a
+2
+
+### primary/subscription/string
+
+>>> s = "ab"
+>>> s[0]
+'a'
+>>> s[1]
+'b'
+>>> s[-1], s[-2]
+('b', 'a')
+
+### primary/subscription/string/invalid
+
+>>> a = 0
+>>> try:
+...   "abc"[-4]
+... except IndexError:
+...   a = 1
+>>> a
+1
+>>> try:
+...   "abc"[4]
+... except IndexError:
+...   a = 2
+>>> a
+2
+
+### primary/subscription/list
+
+>>> l = [3, 4]
+>>> l[0], l[1], l[-1], l[-2]
+(3, 4, 4, 3)
+>>> l[0] = 5; l
+[5, 4]
+>>> l[1] = 6; l
+[5, 6]
+>>> l[-1] = 8; l[-2] = 7; l
+[7, 8]
+
+### primary/subscription/list/invalid
+
+>>> a = 0
+>>> try:
+...   [1,2][-3]
+... except IndexError:
+...   a = 1
+>>> a
+1
+>>> try:
+...   [1][1] = 2
+... except IndexError:
+...   a = 2
+>>> a
+2
+>>> try:
+...   [10, 20, 30][1.7]
+... except TypeError:
+...   a = 3
+>>> a
+3
+>>> try:
+...   'abc'[1.2]
+... except TypeError:
+...   a = 4
+>>> a
+4
+>>> try:
+...   [10, 20, 30][0:2.0]
+... except TypeError:
+...   a = 5
+>>> a
+5
+>>> try:
+...   'abc'[1.0:]
+... except TypeError:
+...   a = 6
+>>> a
+6
+
+### primary/subscription/dictionary
+
+>>> d = {'one': 1, 'two': 2}
+>>> d['one']
+1
+>>> d['two']
+2
+>>> d['one'] = -1
+>>> d['two'] = -2
+>>> d
+{'one': -1, 'two': -2}
+>>> {1: 'ok'}[1]
+'ok'
+>>> {(1,): 'ok'}[1,]
+'ok'
+>>> {(1,2): 'ok'}[1,2]
+'ok'
+>>> d = {}
+>>> d[1] = 'one'
+>>> d[2,] = 'two'
+>>> d[1], d[(2,)]
+('one', 'two')
+>>> d = {1: 'i', -1: 'n', 2L: 'l', 2.5: 'f', 2 ** 40: 'b'}
+>>> d[1.0], d[-1L], d[-1.0], d[2], d[2.0], d[2.5], d[2.0 ** 40], d.has_key(1.0), d.has_key(1.5)
+('i', 'n', 'n', 'l', 'l', 'f', 'b', 1, 0)
+
+### primary/subscription/dictionary/growing
+
+>>> d = {}
+>>> for i in range(100): d['k' + `i`] = i
+>>> d[1] = 'int'
+>>> d[1], d['k0'], d['k99'], len(d)
+('int', 0, 99, 101)
+>>> for i in range(0, 100, 2): del d['k' + `i`]
+>>> for i in range(0, 10, 2): d['k' + `i`] = -i
+>>> len(d), d['k4'], d['k5'], 'k6' in d, 'k10' in d, 2 in d
+(56, -4, 5, 1, 0, 0)
+>>> k = ''
+>>> for a, b in {'x': 1, 'y': 2, 'z': 3}: k = k + a
+>>> k
+'xyz'
+>>> k = ''
+>>> for a, b in d:
+...   if a != 1 and b < 0: k = k + a
+>>> k
+'k2k4k6k8'
+>>> d = {1: 2}
+>>> try:
+...   for a in d: d[3] = 4
+... except RuntimeError: a = 1
+>>> a, d
+(1, {1: 2, 3: 4})
+>>> {1: 2, 'a': (1,)} == {'a': (1,), 1: 2}, {1: 2} == {1: 3}, {1: 2} == {2: 2}
+(1, 0, 0)
+
+### primary/subscription/dictionary/small
+
+>>> d = {}
+>>> for i in range(20):
+...   d[i] = i
+...   if i > 2: del d[i - 2]
+>>> d
+{0: 0, 18: 18, 19: 19}
+>>> for i in range(7): d['k' + `i`] = i
+>>> len(d), d[0], d['k6'], d.has_key(18), d.has_key(17)
+(10, 0, 6, 1, 0)
+>>> k = 0
+>>> for a, b in {'x': 1, 'y': 2}: k = k + b
+>>> k
+3
+
+### primary/subscription/dictionary/methods
+
+>>> d = {'b': 1, 'a': 2}
+>>> d['c'] = 3
+>>> d.keys(), d.values(), d.items()
+(['b', 'a', 'c'], [1, 2, 3], [('b', 1), ('a', 2), ('c', 3)])
+>>> {}.keys(), {}.items()
+([], [])
+>>> k = ''
+>>> for a in d.iterkeys(): k = k + a
+>>> k
+'bac'
+>>> n = 0
+>>> for a in d.itervalues(): n = n * 10 + a
+>>> n
+123
+>>> v = d.iteritems()
+>>> del d['a']
+>>> for a, b in v: k = k + a + `b`
+>>> k
+'bacb1c3'
+>>> len(v), ('b', 1) in v, ('b', 2) in v, 'b' in d.iterkeys(), 3 in d.itervalues(), 2 in d.itervalues()
+(2, 1, 0, 1, 1, 0)
+>>> try:
+...   for a in d.iterkeys(): d[a + a] = 1
+... except RuntimeError: a = 0
+>>> a
+0
+
+### primary/subscription/dictionary/invalid
+
+>>> a = 0
+>>> try:
+...  {'a': 1}['b']
+... except KeyError:
+...  a = 1
+>>> a
+1
+
+### primary/slicing/tuple
+
+>>> t = (1, 2, 3, 4, 5)
+>>> t[:]
+(1, 2, 3, 4, 5)
+>>> t[2:]
+(3, 4, 5)
+>>> t[-2:]
+(4, 5)
+>>> t[0:1]
+(1,)
+>>> t[0:0]
+()
+>>> t[4:8]
+(5,)
+>>> t[2:1]
+()
+>>> t[1:4], t[:3][1:], t[:1], t[-1:] == (5,), t[0:3] == (1, 2, 3), t[0:3] == (1, 2)
+((2, 3, 4), (2, 3), (1,), 1, 1, 0)
+>>> d = {(): 0, (1,): 1, (1, 2): 2, (1, 2, 3): 3, (1, 2, 3, 4): 4}
+>>> d[t[:0]], d[t[:1]], d[t[:2]], d[t[:3]], d[t[:4]], (1, 2) in d, (2, 1) in d
+(0, 1, 2, 3, 4, 1, 0)
+>>> t = tuple(range(40))
+>>> u = t[2:38]; v = u[1:-1]
+>>> len(u), u[0], u[-1], len(v), v[:3], v[-1], 36 in v, 37 in v, v == t[3:37]
+(36, 2, 37, 34, (3, 4, 5), 36, 1, 0, 1)
+>>> {v: 1}[t[3:37]], v[30:], v[:2]
+(1, (33, 34, 35, 36), (3, 4))
+
+### primary/slicing/string
+>>> s = "abcd"
+>>> s[:]
+'abcd'
+>>> s[2:]
+'cd'
+>>> s[:2]
+'ab'
+>>> s[2:2]
+''
+>>> s[2:3]
+'c'
+>>> s[3:6]
+'d'
+>>> s[3:2]
+''
+>>> s[:-1]
+'abc'
+>>> s[0:0]
+''
+>>> s = '0123456789' * 10
+>>> t = s[5:95]
+>>> len(t), t[0], t[-1], t[10:13], t[:-85]
+(90, '5', '4', '567', '56789')
+>>> u = t[2:82]
+>>> len(u), u[0], u[79], u[:3] + u[-3:]
+(80, '7', '6', '789456')
+>>> u == s[7:87], u < t, {u: 1}[s[7:87]]
+(1, 0, 1)
+>>> b = ''
+>>> for c in u[:5]: b = c + b
+>>> b
+'10987'
+>>> try: u[80]
+... except IndexError: a = 1
+>>> a
+1
+
+### primary/slicing/list
+
+>>> l = [1, 2, 4, 8]
+>>> l[:]
+[1, 2, 4, 8]
+>>> l[:] is not l
+1
+>>> l[3:]
+[8]
+>>> l[-2:]
+[4, 8]
+>>> l[2:-1]
+[4]
+>>> l[-1:4]
+[8]
+>>> l[-9:9]
+[1, 2, 4, 8]
+>>> l[6:2]
+[]
+
+### primary/slicing/list/assign
+
+>>> l = [1, 2]; l[:] = [3]; l
+[3]
+>>> l = [1, 2, 3, 4]; l[:2] = []; l
+[3, 4]
+>>> l = [1, 2]; l[1:1] = [3]; l
+[1, 3, 2]
+>>> l = [1]; l[3:2] = [4]; l
+[1, 4]
+>>> l = [1]; l[0:0] = [4]; l
+[4, 1]
+
+### primary/slicing/list/strategies
+
+>>> l = range(5)
+>>> l.append(5); l[0] = -1; l[1:3] = [7, 8, 9]; del l[-1]; l
+[-1, 7, 8, 9, 3, 4]
+>>> l[2:4], 9 in l, 2 in l, 'a' in l
+([8, 9], 1, 0, 0)
+>>> l.append(2.5); l
+[-1, 7, 8, 9, 3, 4, 2.5]
+>>> l[0] = 'x'; l[-2:], l[:2]
+([4, 2.5], ['x', 7])
+>>> f = [1.5, 2.0]; f.append(0.25); f[1:1] = [-1.0]; f, 2.0 in f, 2 in f, 3 in f
+([1.5, -1.0, 2.0, 0.25], 1, 1, 0)
+>>> f[0] = 1; f
+[1, -1.0, 2.0, 0.25]
+>>> e = []; e.append(1.0); e.append('a'); e.append(3); e
+[1.0, 'a', 3]
+>>> e[:] = []; e.append(4); e, [1, 2] == [1, 2], [1, 2] == [1, 2.5], [1] == ['1']
+([4], 1, 0, 0)
+>>> e[0:0] = (1, 2, 3); del e[1:3]; e
+[1, 4]
+>>> e = []; e[0:0] = [1, 1.5]; e[2:] = [2.5, 2]; e
+[1, 1.5, 2.5, 2]
+>>> e = [1]; del e[0]; e[:] = [2.5, 2]; e.append('x'); e
+[2.5, 2, 'x']
+
+### primary/slicing/list/shared
+
+>>> l = range(40)
+>>> a = l[2:38]; b = a[1:-1]; c = l[20:]
+>>> len(a), a[0], a[-1], len(b), b[0], b[-1], 30 in b, 1 in b, c[:3]
+(36, 2, 37, 34, 3, 36, 1, 0, [20, 21, 22])
+>>> a[0] = 'x'; a.append(99); l[3] = -3; l.append(40)
+>>> a[:3], a[-2:], b[:2], l[:5], len(l), c[-1]
+(['x', 3, 4], [37, 99], [3, 4], [0, 1, 2, -3, 4], 41, 39)
+>>> del l[:10]; l[:3], b[:2], c[:2]
+([10, 11, 12], [3, 4], [20, 21])
+>>> c[1:1] = [0]; c[:3], len(c), l[10:13]
+([20, 0, 21], 21, [20, 21, 22])
+>>> d = c[:]; d.append(1); d[-3:], c[-3:]
+([38, 39, 1], [37, 38, 39])
+
+### primary/slicing/dictionary
+
+>>> a = 0
+>>> try: {}[:]
+... except TypeError: a = 1
+>>> a
+1
+>>> try: {}[:] = {'a': 1}
+... except TypeError: a = 2
+>>> a
+2
+
+### expr/power
+>>> 2 ** 0
+1
+>>> 2 ** 8
+256
+>>> 2 ** 50
+1125899906842624L
+>>> 2 ** 200
+1606938044258990275541962092341162602522202993782792835301376L
+
+### expr/unary arithmetic
+
+>>> -0
+0
+>>> +0
+0
+>>> -1
+-1
+>>> --1
+1
+>>> +1
+1
+>>> +-1
+-1
+>>> ~3
+-4
+>>> ~-3
+2
+>>> -1000000000000000000000
+-1000000000000000000000L
+>>> +1000000000000000000000
+1000000000000000000000L
+>>> ~1000000000000000000000
+-1000000000000000000001L
+>>> -2147483648
+-2147483648
+
+### expr/binary arithmetic/numbers
+
+>>> 3+4
+7
+>>> 3-4
+-1
+>>> 3*4
+12
+>>> 3/4
+0
+>>> 3%4
+3
+>>> 2147483647+1
+2147483648L
+>>> -2147483648+1
+-2147483647
+>>> -2147483648-1
+-2147483649L
+>>> 100000*100000
+10000000000L
+>>> 1+2*3
+7
+>>> 1*2+3
+5
+>>> (1+2)*3
+9
+>>> 1*(2+4)
+6
+>>> 1+2+3+4
+10
+>>> 100/9/9
+1
+>>> 8589934592L + 4
+8589934596L
+>>> 4 + 8589934592L
+8589934596L
+>>> 8589934592L + 8589934592L
+17179869184L
+>>> 8589934592L * 8589934592L
+73786976294838206464L
+>>> (-2147483647-1)/-1
+2147483648L
+>>> 1L - 2, 1 - 2L, 1L - 2L
+(-1L, -1L, -1L)
+>>> 1L + 2, 1 + 2L, 1L + 2L
+(3L, 3L, 3L)
+>>> 4L / 3L
+1L
+>>> 4L % 3L
+1L
+>>> 2147483647-(-1), -2147483648*-1, 65536*32768, -65536*32768
+(2147483648L, 2147483648L, 2147483648L, -2147483648)
+>>> 9223372036854775807L + 1, -9223372036854775808L - 1, 4294967296L * 4294967296L
+(9223372036854775808L, -9223372036854775809L, 18446744073709551616L)
+>>> -9223372036854775808L * -1, -(-9223372036854775808L), 3037000499L * 3037000499L, 3037000500L * 3037000500L
+(9223372036854775808L, 9223372036854775808L, 9223372030926249001L, 9223372037000250000L)
+>>> 9223372036854775808L - 1, 1 - 9223372036854775808L, 18446744073709551616L / 2
+(9223372036854775807L, -9223372036854775807L, 9223372036854775808L)
+>>> 4294967296L == 4294967296L, 4294967296L < 4294967297L, 9223372036854775808L > 1L, 1 < 9223372036854775808L
+(1, 1, 1, 1)
+
+### expr/binary arithmetic/floats
+>>> 1.5, 0.1, 2., 1e3, 1.5e-7, 1e16, -0.0
+(1.5, 0.1, 2.0, 1000.0, 1.5e-07, 1e+16, -0.0)
+>>> 0.1 + 0.2
+0.30000000000000004
+>>> 1.5 + 1, 1 + 1.5, 1.5 - 2, 2 - 1.5, 1.5 * 2, 2 * 1.5, 3 / 2.0, 3.0 / 2
+(2.5, 2.5, -0.5, 0.5, 3.0, 3.0, 1.5, 1.5)
+>>> 4294967296L * 0.5, 0.5 + 1L, 2 ** 0.5 == 1.4142135623730951, 2 ** -1, 2.0 ** 3
+(2147483648.0, 1.5, 1, 0.5, 8.0)
+>>> 7.5 % 2, -7.5 % 2, 7.5 % -2, -1.5
+(1.5, 0.5, -0.5, -1.5)
+>>> 1.0 == 1, 1 < 1.5, 2L > 1.5, 1.5 < 2L, 0.0 or 'zero', abs(-2.5)
+(1, 1, 1, 1, 'zero', 2.5)
+>>> float(1), float(2L), float(' 2.5 '), type(1.0)
+(1.0, 2.0, 2.5, 'float')
+>>> 1e300 * 1e300, -1e300 * 1e300, 1e300 * 1e300 * 0
+(inf, -inf, nan)
+>>> try:
+...   1 / 0.0
+... except ZeroDivisionError:
+...   a = 'caught'
+>>> a
+'caught'
+>>> try:
+...   0.0 ** -1
+... except ZeroDivisionError:
+...   a = 'caught power'
+>>> a
+'caught power'
+>>> try:
+...   10.0 ** 400
+... except OverflowError:
+...   a = 'overflow'
+>>> a
+'overflow'
+>>> 0.0 ** 0, 0.0 ** 2, 10.0 ** -400, (1e300 * 1e300) ** 2, (1e300 * 1e300 * 0) ** 2
+(1.0, 0.0, 0.0, inf, nan)
+>>> def f(a, b): return a * b + a / b - b
+>>> f(3.0, 2.0), f(3.0, 2), f(3, 2.0), f(3, 2), f(3.0, 2.0)
+(5.5, 5.5, 5.5, 5, 5.5)
+
+### expr/binary arithmetic/numbers/div
+>>> -3 / 3, -2 / 3, -1 / 3, 0 / 3, 1 / 3, 2 / 3, 3 / 3
+(-1, -1, -1, 0, 0, 0, 1)
+>>> -3 / -3, -2 / -3, -1 / -3, 0 / -3, 1 / -3, 2 / -3, 3 / -3
+(1, 0, 0, 0, -1, -1, -1)
+>>> -3L / 3, -2L / 3, -1L / 3, 0L / 3, 1L / 3, 2L / 3, 3L / 3
+(-1L, -1L, -1L, 0L, 0L, 0L, 1L)
+>>> -3 / -3L, -2 / -3L, -1 / -3L, 0 / -3L, 1 / -3L, 2 / -3L, 3 / -3L
+(1L, 0L, 0L, 0L, -1L, -1L, -1L)
+
+### expr/binary arithmetic/numbers/mod
+>>> -3 % 3, -2 % 3, -1 % 3, 0 % 3, 1 % 3, 2 % 3, 3 % 3
+(0, 1, 2, 0, 1, 2, 0)
+>>> -3 % -3, -2 % -3, -1 % -3, 0 % -3, 1 % -3, 2 % -3, 3 % -3
+(0, -2, -1, 0, -2, -1, 0)
+>>> -3 % 3L, -2 % 3L, -1 % 3L, 0 % 3L, 1 % 3L, 2 % 3L, 3 % 3L
+(0L, 1L, 2L, 0L, 1L, 2L, 0L)
+>>> -3L % -3, -2L % -3, -1L % -3, 0L % -3, 1L % -3, 2L % -3, 3L % -3
+(0L, -2L, -1L, 0L, -2L, -1L, 0L)
+
+
+### expr/binary arithmetic/strings
+
+>>> 'foo' + "bar"
+'foobar'
+>>> 'foo' * 0
+''
+>>> "foo" * 3
+'foofoofoo'
+>>> s = ''
+>>> for i in range(2000): s = s + 'ab'
+>>> t = 'x' * 100 + s
+>>> len(s), len(t), s[3999], s[-4], t[99:102], t[-2:]
+(4000, 4100, 'b', 'a', 'xab', 'ab')
+>>> s == 'ab' * 2000, s + 'y' == s + 'z', s < s + 'a'
+(1, 0, 1)
+>>> d = {s: 1}
+>>> d['ab' * 2000], 'ba' in t, 'xa' in t, 'bx' in t
+(1, 1, 1, 0)
+>>> ('=' * 30 + '-' * 40)[28:32]
+'==--'
+
+### expr/shifts
+
+>>> 1 << 0
+1
+>>> 1 << 10
+1024
+>>> 1 << 100
+1267650600228229401496703205376L
+>>> 256 >> 0
+256
+>>> 256 >> 3
+32
+>>> 1L << 2
+4L
+>>> 4L >> 1
+2L
+>>> 1267650600228229401496703205376L >> 99
+2L
+>>> try:
+...   3 << 2.0
+... except TypeError:
+...   a = 'caught'
+>>> a
+'caught'
+>>> try:
+...   1L >> 1.0
+... except TypeError:
+...   a = 'caught too'
+>>> a
+'caught too'
+
+### expr/bit-wise operations
+
+>>> 3 & 1
+1
+>>> 3 | 4
+7
+>>> 3 ^ 1
+2
+
+### expr/comparisons/ints
+
+>>> 1 < 2
+1
+>>> 1 > 2
+0
+>>> 1 <= 2
+1
+>>> 1 >= 2
+0
+>>> 1 == 2
+0
+>>> 1 != 2
+1
+>>> 1 <> 2
+1
+>>> 1 < 3 < 5
+1
+>>> 1 < 5 < 3
+0
+
+### expr/comparisons/equality
+>>> 1 == 1L, 1L == 1.0, (1, 2L) == (1L, 2), [1] == [1.0], [1] == [2], [1, [2]] != [1, [2]]
+(1, 1, 1, 1, 0, 0)
+>>> 1 == 'a', 'a' == 1, None == 0, 'ab' == 'a' + 'b', 'a' != 'b', [] == ()
+(0, 0, 0, 1, 1, 0)
+>>> -2147483648 < 1, 2147483647 > -2, 1 < 2 < 3 > 2, 1 < 2 > 3
+(1, 1, 1, 0)
+>>> nan = 1e300 * 1e300 * 0
+>>> nan == 1.0, nan == nan, 1 == nan, nan == 1, 1L == nan, nan == 1L, nan != nan, 1.0 != nan
+(0, 0, 0, 0, 0, 0, 1, 1)
+>>> 9007199254740993 == 9007199254740992.0, 9007199254740992.0 == 9007199254740993, 9007199254740992 == 9007199254740992.0
+(0, 0, 1)
+>>> 2 ** 64 == 2.0 ** 64, 2 ** 64 + 1 == 2.0 ** 64, -2 ** 63 == -2.0 ** 63, 9007199254740993 != 9007199254740992.0
+(1, 0, 1, 1)
+>>> {9007199254740993: 'a'}.has_key(9007199254740992.0), {9007199254740992: 'a'}.has_key(9007199254740992.0)
+(0, 1)
+>>> def f(a, b):
+...   n = 0
+...   while a < b and not a == 5: a = a + 1; n = n + 1
+...   if a == 5 or n > 2: return n
+...   return -n
+>>> f(0, 9), f(7, 9), f(5, 9)
+(5, -2, 0)
+
+### expr/comparisons/tuple
+
+>>> () == ()
+1
+>>> (1,) == (1,)
+1
+>>> (1,(2,)) == (1,(2,))
+1
+>>> () != (1,)
+1
+>>> (1,) != ()
+1
+>>> (1,2) != (2,1)
+1
+>>> (1,) < (1,2)
+1
+>>> (1,) > (1,2)
+0
+
+### expr/identity comparisons
+
+>>> t = (1, 2)
+>>> t is t
+1
+>>> t is ()
+0
+>>> t is (1, 2)
+0
+>>> t is not t
+0
+>>> t is not ()
+1
+>>> t is not (1, 2)
+1
+
+### expr/containment/tuple
+
+>>> t = (1, 2)
+>>> 2 in t, 3 in t
+(1, 0)
+>>> 2 not in t, 3 not in t
+(0, 1)
+
+### expr/containment/string
+
+>>> s = "foobar"
+>>> "o" in s
+1
+>>> "oob" in s
+1
+>>> "e" in s
+0
+>>> "baz" in s
+0
+
+### expr/containment/list
+
+>>> l = [1, 2]
+>>> 2 in l, 3 in l
+(1, 0)
+>>> 2 not in l, 3 not in l
+(0, 1)
+
+### expr/containment/dictionary
+
+>>> d = {1: 2, 3: 4}
+>>> 1 in d, 2 in d, 3 in d, 4 in d
+(1, 0, 1, 0)
+>>> 1 not in d, 2 not in d, 3 not in d, 4 not in d
+(0, 1, 0, 1)
+
+### expr/boolsche operations/not
+
+>>> not ""
+1
+>>> not ()
+1
+>>> not []
+1
+>>> not {}
+1
+>>> not 0
+1
+>>> not "true"
+0
+>>> not (1,)
+0
+>>> not ["", ()]
+0
+>>> not {1: ()}
+0
+>>> not 4711
+0
+>>> not 1 == 2
+1
+>>> not 1 == 1
+0
+>>> not 1 > -1
+0
+>>> (not 1) > -1
+1
+
+### expr/boolsche operations/and
+
+>>> "x" and "y"
+'y'
+>>> "" and "y"
+''
+
+### expr/boolsche operations/or
+
+>>> "x" or "y"
+'x'
+>>> "" or "y"
+'y'
+
+### expr/expression lists
+>>> a = 1,
+>>> a
+(1,)
+>>> a = 1, 2,
+>>> a
+(1, 2)
+
+### expr/specialized operations falling back
+>>> def f(a, b): return a + b, a * b, a & b, a < b, a == b
+>>> f(3, 4)
+(7, 12, 0, 1, 0)
+>>> f(2147483647, 1)
+(2147483648L, 2147483647, 1, 0, 0)
+>>> f(3L, 4)
+(7L, 12L, 0L, 1, 0)
+>>> def f(a, b): return a + b, a < b, a != b
+>>> f('a', 'b')
+('ab', 1, 1)
+>>> f(1, 2)
+(3, 1, 1)
+>>> f('b', 'a')
+('ba', 0, 1)
+
+### expr/specialized subscriptions falling back
+>>> def f(s, i): return s[i]
+>>> f([1, 2, 3], 1)
+2
+>>> f([1, 2, 3], -1)
+3
+>>> f((1, 2, 3), 2)
+3
+>>> f({1: 'a'}, 1)
+'a'
+>>> f('abc', 0)
+'a'
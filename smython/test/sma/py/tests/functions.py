@@ -1,48 +1,106 @@
-### simple function definition
->>> def f(): return 1
->>> if f: a = 1
->>> else: a = 0
->>> a
-1
-
-### simple function application
->>> def f(): return 1
->>> f()
-1
-
-### function application with parameters
->>> def f(a, b=-1): return a, b
->>> f(1)
-(1, -1)
->>> f(2, 3)
-(2, 3)
->>> f(4, b=5)
-(4, 5)
->>> f(a=6)
-(6, -1)
->>> f(a=7, b=8)
-(7, 8)
->>> f(b=10, a=9)
-(9, 10)
-
-### function appliation with rest list
->>> def f(a, *rest): return a, rest
->>> f(1)
-(1, ())
->>> f(1, 2, 3)
-(1, (2, 3))
-
-### function application with kwrest list
->>> def f(a=0, **rest): return a, rest
->>> f()
-(0, {})
->>> f(1)
-(1, {})
->>> f(a=2)
-(2, {})
->>> f(a=3, b=4)
-(3, {'b': 4})
->>> f(b=6, a=5)
-(5, {'b': 6})
->>> f(b=7, c=8)
-(0, {'b': 7, 'c': 8})
+### simple function definition
+>>> def f(): return 1
+>>> if f: a = 1
+>>> else: a = 0
+>>> a
+1
+
+### simple function application
+>>> def f(): return 1
+>>> f()
+1
+
+### function application with parameters
+>>> def f(a, b=-1): return a, b
+>>> f(1)
+(1, -1)
+>>> f(2, 3)
+(2, 3)
+>>> f(4, b=5)
+(4, 5)
+>>> f(a=6)
+(6, -1)
+>>> f(a=7, b=8)
+(7, 8)
+>>> f(b=10, a=9)
+(9, 10)
+
+### function appliation with rest list
+>>> def f(a, *rest): return a, rest
+>>> f(1)
+(1, ())
+>>> f(1, 2, 3)
+(1, (2, 3))
+
+### function application with kwrest list
+>>> def f(a=0, **rest): return a, rest
+>>> f()
+(0, {})
+>>> f(1)
+(1, {})
+>>> f(a=2)
+(2, {})
+>>> f(a=3, b=4)
+(3, {'b': 4})
+>>> f(b=6, a=5)
+(5, {'b': 6})
+>>> f(b=7, c=8)
+(0, {'b': 7, 'c': 8})
+
+### local variables of a function
+>>> def f(a, b=2):
+...   c = a + b
+...   return a, b, c
+>>> f(1)
+(1, 2, 3)
+>>> def f((a, b), c): return a, b, c
+>>> f((1, 2), 3)
+(1, 2, 3)
+
+### locals() of a function
+>>> def f(a): b = 2; return locals()
+>>> f(1)
+{'a': 1, 'b': 2}
+
+### exec changes local variables of a function
+>>> def f(a):
+...   exec 'b = a + 1; a = 5'
+...   return a, b
+>>> f(1)
+(5, 2)
+
+### deleting a local variable of a function
+>>> def f(a):
+...   del a
+...   return a
+>>> try: f(1)
+... except "NameError", e: a=e
+>>> a
+'a'
+
+### positional calls of functions, methods and classes
+>>> def f0(): return 0
+>>> def f4(a, b, c, d): return a, b, c, d
+>>> f0(), f4(1, 2, 3, 4), len('ab')
+(0, (1, 2, 3, 4), 2)
+>>> def f(a, b=2, *c): return a, b, c
+>>> f(1), f(1, 3), f(1, 3, 4, 5)
+((1, 2, ()), (1, 3, ()), (1, 3, (4, 5)))
+>>> class C:
+...   def __init__(self, *a): self.a = a
+...   def m(self, a, b, c): return self.a, a, b, c
+>>> C().a, C(1).a, C(1, 2).a, C(1, 2, 3).a, C(1, 2, 3, 4).a
+((), (1,), (1, 2), (1, 2, 3), (1, 2, 3, 4))
+>>> C(0).m(1, 2, 3)
+((0,), 1, 2, 3)
+>>> C.m(C(0), 1, 2, 3)
+((0,), 1, 2, 3)
+>>> class D: pass
+>>> try: D(1)
+... except "TypeError", e: a=e
+>>> a
+'constructor takes no arguments'
+>>> try: f4(1, 2)
+... except "TypeError", e: a=e
+>>> a
+'not enough parameters'
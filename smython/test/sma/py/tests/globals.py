@@ -41,3 +41,22 @@
 ... except "NameError", e: b=e
 >>> b
 'g'
+
+### shadowing built-in variables
+>>> def f(): return len('abc'), g
+>>> g = 1
+>>> f()
+(3, 1)
+>>> def len(s): return -1
+>>> g = 2
+>>> f()
+(-1, 2)
+>>> del len
+>>> f()
+(3, 2)
+>>> def f(): global g; return g
+>>> f()
+2
+>>> g = 3
+>>> f()
+3
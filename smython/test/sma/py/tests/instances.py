@@ -1,96 +1,157 @@
-### simple class definition
->>> class C: pass
->>> if C: a = 1
-... else: a = 0
->>> a
-1
-
-### normal class definition
->>> class C:
-...   def m1(): return 1
-...   def m2(a):
-...     return a
->>> not C
-0
->>> not C.m1, not C.m2
-(0, 0)
-
-### class attributes
->>> class C:
-...   c = 2
->>> C.c
-2
->>> C.c = 3
->>> C.c
-3
-
-### instantiation
->>> class C: pass
->>> not C()
-0
-
-### instantiation with __init__
->>> class C:
-...   def __init__(self, *a): self.a = a
-...   def args(self): return self.a
->>> C().args()
-()
->>> C(1).args()
-(1,)
->>> C(1,).args()
-(1,)
->>> C(1, 2).args()
-(1, 2)
-
-### instance attributes
->>> class C: pass
->>> c = C()
->>> c.a = 5
->>> c.a
-5
-
-### method application
->>> class C:
-...   def m(self): return 42
->>> C().m()
-42
->>> m = C().m
->>> m()
-42
-
-### unbound method application
->>> class C:
-...   def m(self, a): return -a
->>> m = C.m
->>> m(C(), 4)
--4
-
-### inheritance of attributes
->>> class C: a = 'c'
->>> class D(C): pass
->>> D.a
-'c'
->>> class E(D): a = 'd'
->>> E.a
-'d'
-
-### inheritance of methods
->>> class C:
-...   def __init__(self, a): self.a = a
-...   def m(self): return self.a
->>> class D(C):
-...   def __init__(self):
-...     C.__init__(self, 7)
->>> C(3).m()
-3
->>> D().m()
-7
-
-### overriding +
->>> class A:
-...   def __add__(self, a): return -a;
-...   def __radd__(self, a): return -a * 2;
->>> A() + 3
--3
->>> 3 + A()
--6
+### simple class definition
+>>> class C: pass
+>>> if C: a = 1
+... else: a = 0
+>>> a
+1
+
+### normal class definition
+>>> class C:
+...   def m1(): return 1
+...   def m2(a):
+...     return a
+>>> not C
+0
+>>> not C.m1, not C.m2
+(0, 0)
+
+### class attributes
+>>> class C:
+...   c = 2
+>>> C.c
+2
+>>> C.c = 3
+>>> C.c
+3
+
+### instantiation
+>>> class C: pass
+>>> not C()
+0
+
+### instantiation with __init__
+>>> class C:
+...   def __init__(self, *a): self.a = a
+...   def args(self): return self.a
+>>> C().args()
+()
+>>> C(1).args()
+(1,)
+>>> C(1,).args()
+(1,)
+>>> C(1, 2).args()
+(1, 2)
+
+### instance attributes
+>>> class C: pass
+>>> c = C()
+>>> c.a = 5
+>>> c.a
+5
+
+### method application
+>>> class C:
+...   def m(self): return 42
+>>> C().m()
+42
+>>> m = C().m
+>>> m()
+42
+
+### unbound method application
+>>> class C:
+...   def m(self, a): return -a
+>>> m = C.m
+>>> m(C(), 4)
+-4
+
+### inheritance of attributes
+>>> class C: a = 'c'
+>>> class D(C): pass
+>>> D.a
+'c'
+>>> class E(D): a = 'd'
+>>> E.a
+'d'
+
+### inheritance of methods
+>>> class C:
+...   def __init__(self, a): self.a = a
+...   def m(self): return self.a
+>>> class D(C):
+...   def __init__(self):
+...     C.__init__(self, 7)
+>>> C(3).m()
+3
+>>> D().m()
+7
+
+### overriding +
+>>> class A:
+...   def __add__(self, a): return -a;
+...   def __radd__(self, a): return -a * 2;
+>>> A() + 3
+-3
+>>> 3 + A()
+-6
+
+### changing classes invalidates cached attribute lookups
+>>> class A: x = 1
+>>> class B(A): pass
+>>> class C: x = 3
+>>> def f(o): return o.x
+>>> f(B()), f(B)
+(1, 1)
+>>> A.x = 2
+>>> f(B()), f(B)
+(2, 2)
+>>> B.__bases__ = (C,)
+>>> f(B()), f(B)
+(3, 3)
+>>> B.__dict__['x'] = 4
+>>> f(B()), f(B)
+(4, 4)
+>>> del B.x
+>>> f(B()), f(B)
+(3, 3)
+
+### instance attributes and __dict__
+>>> class P: pass
+>>> p = P(); p.x = 1; p.y = 2; p.x = 3
+>>> q = P(); q.y = 4
+>>> p.x, p.y, q.y
+(3, 2, 4)
+>>> p.__dict__
+{'x': 3, 'y': 2}
+>>> p.__dict__['z'] = 5
+>>> p.z
+5
+>>> del q.y
+>>> q.__dict__
+{}
+>>> for i in range(40): exec 'p.a' + `i` + ' = ' + `i`
+>>> p.a0, p.a39
+(0, 39)
+>>> r = P()
+>>> for i in range(40): exec 'r.a' + `i` + ' = ' + `i`
+>>> r.a0, r.a32, r.a39, len(r.__dict__)
+(0, 32, 39, 40)
+
+### method calls
+>>> class M:
+...   def m(self, *a): return len(a)
+...   def n(self, a, b=2): return a + b
+>>> o = M()
+>>> o.m(), o.m(1), o.m(1, 2), o.m(1, 2, 3), o.m(1, 2, 3, 4)
+(0, 1, 2, 3, 4)
+>>> o.n(1), o.n(1, b=3)
+(3, 4)
+>>> M.n(o, 1)
+3
+>>> o.m = M().n
+>>> o.m(5)
+7
+>>> class G:
+...   def __getattr__(self, name): return lambda x, name=name: name + x
+>>> G().foo('!')
+'foo!'
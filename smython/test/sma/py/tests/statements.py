@@ -1,402 +1,521 @@
-### simple if True
->>> a = ''
->>> if 1: a = 'ok'
->>> a
-'ok'
-
-### normal if True
->>> a = ''
->>> if 1:
-...   a = '..'
-...   a = 'ok'
->>> a
-'ok'
-
-### short if True
->>> a = ''; b = ''
->>> if 1: a = 'ok'; b = 'ok'
->>> a, b
-('ok', 'ok')
-
-### if True with simple else 
->>> a = ''
->>> if 1:
-...   a = 'ok'
-... else: a = 'not ok'
->>> a
-'ok'
-
-### if True with normal else
->>> a = ''
->>> if 1:
-...   a = 'ok'
-... else:
-...   a = '..'
-...   a = 'not ok'
->>> a
-'ok'
-
-### if False without else
->>> a = ''
->>> if 0: a = 'not ok'
->>> a
-''
-
-### if False with simple else
->>> a = ''
->>> if 0: a = 'not ok'
-... else: a = 'ok'
->>> a
-'ok'
-
-### if False with normal else
->>> a = ''
->>> if 0: a = 'not ok'
-... else:
-...   a = '..' 
-...   a = 'ok'
->>> a
-'ok'
-
-### if False with short else
->>> a = ''; b = ''
->>> if 0: a = 'not ok'; b = 'not ok'
->>> else: a = 'ok'; b = 'ok'
->>> a, b
-('ok', 'ok')
-
-
-### simple if/elif combination
->>> a = ''
->>> if 0: pass
->>> elif 1: a = 'ok'
->>> a
-'ok'
-
-### normal if/elif combination
->>> a = ''
->>> if 0: pass
->>> elif 1:
-...   a = '..'
-...   a = 'ok'
->>> a
-'ok'
-
-### short if/elif combination
->>> a = ''
->>> if 0: pass
->>> elif 1:
-...   a = '..'; a = 'ok'
->>> a
-'ok'
-
-### if/elif with simple else
->>> a = ''
->>> if 0: pass
-... elif 1: a = 'ok'
-... else: a = 'not ok'
->>> a
-'ok'
-
-### if/elif with normal else
->>> a = ''
->>> if 0: pass
-... elif 1: a = 'ok'
-... else:
-...  a = '..'
-...  a = 'not ok'
->>> a
-'ok'
-
-### if/elif with short else
->>> a = ''
->>> if 0: pass
-... elif 1: a = 'ok'
-... else:
-...  a = '..'; a = 'not ok'
->>> a
-'ok'
-
-### if/elif with succeeding else
->>> a = ''
->>> if 0: pass
-... elif 0: pass
-... else: a = 'ok'
->>> a
-'ok'
-
-### complex if/elif/else
->>> a = ''
->>> if 0: pass
-... elif 0: pass
-... elif 0: pass
-... elif 1: a = 'ok'
-... else: pass
->>> a
-'ok'
-
-### while False
->>> a = 'ok'
->>> while 0: a = 'not ok'
->>> a
-'ok'
-
-### while False with else
->>> a = 0
->>> while 0: assert 0
-... else: a = 'ok'
->>> a
-'ok'
-
-### simple while True
->>> a = 0
->>> while a < 3: a = a + 1
->>> a
-3
-
-### normal while True
->>> a = 0
->>> while a < 3:
-...   a = a + 1 
-...   a = a + 1
->>> a
-4
-
-### while True with simple else
->>> a = 0
->>> while a < 3:
-...   a = a + 1
-... else: a = a + 4
->>> a
-7
-
-### while True with normal else
->>> a = 0
->>> while a < 3:
-...   a = a + 1
-... else:
-...   a = a + 2
-...   a = a + 2
->>> a
-7
-
-### while True with break
->>> a = 0
->>> while 1:
-...   break
-...   a = 1
->>> a
-0
-
-### while True with break and else
->>> a = 0
->>> while 1:
-...   break
-...   a = 1
-... else:
-...   a = 2
->>> a
-0
-
-### while with break and continue
->>> a = 0
->>> while a < 5:
-...   a = a + 1
-...   if a == 2: continue
-...   if a == 2: break
-...   if a == 3: break
-... else: a = 99
->>> a
-3
-
-### while with continue and else
->>> a = 0
->>> while a < 2:
-...   if a == 1:
-...     a = 2
-...     continue
-...   a = a + 1
-... else: a = 4
->>> a
-4
-
-### simple for
->>> a = 0
->>> for b in (1, 2, 3): a = a + b
->>> a, b
-(6, 3)
-
-### simple for, implicit tuple 
->>> a = 0
->>> for b in 1, 2, 3: a = a + b
->>> a, b
-(6, 3)
-
-### normal for
->>> a = 0
->>> for b in (1, 2, 3):
-...   a = a + b
-...   a = a + b
->>> a, b
-(12, 3)
-
-### short for
->>> a = 0
->>> for b in (1, 2, 3): a = a + b; a = a + b
->>> a, b
-(12, 3)
-
-### for without elements
->>> a = 0
->>> for b in (): a = 1
->>> a
-0
-
-### for without elements but with else
->>> a = 0
->>> for b in (): a = 1
->>> else: a = 4
->>> a
-4
-
-### for with simple else
->>> a = 0
->>> for b in (): a = 1
-... else: a = 2
->>> a
-2
-
-### for with normal else
->>> a = 0
->>> for b in 99,: a = 1
-... else:
-...   a = 2
-...   a = 3
->>> a, b
-(3, 99)
-
-### for with break
->>> for a in 1, 2, 3:
-...   if a == 2: break
->>> a
-2
-
-### for with break and else
->>> for a in 1, 2, 3:
-...   if a == 2: break
-... else: a = 4
->>> a
-2
-
-### for with continue
->>> b = 0
->>> for a in 1, 2:
-...   if a == 2: continue
-...   b = a
->>> b
-1
-
-### for with continue and else
->>> b = 0
->>> for a in 1, 2:
-...   if a == 2: continue
-...   b = a
-... else: b = 3
->>> b
-3
-
-### try/finaly
->>> a=0
->>> try:
-...   try:
-...     assert 0
-...   finally:
-...     a=1
-... except: pass
->>> a
-1
-
-### try/except
->>> a=0
->>> try: assert 1
-... except: a=0
->>> a
-0
->>> try: assert 0
-... except: a=1
->>> a
-1
-
-### try/except/else
->>> a=0
->>> try: assert 1
-... except: a=1
-... else: a=2
->>> a
-2
->>> try: assert 0
-... except: a=1
-... else: a=2
->>> a
-1
-
-### raise stops execution
->>> a=0
->>> try:
-...   raise "foo"; a=1
-... except:
-...   a=2
->>> a
-2
-
-### except with exception type
->>> a=0
->>> try:
-...   raise "foo"; a=1
-... except "foo":
-...   a=2
->>> a
-2
->>> try:
-...   raise "foo", 3
-... except "foo", e:
-...   a=e
->>> a
-3
-
-### except with wrong exception type
->>> a=0
->>> try:
-...   try: raise "foo"
-...   except "bar": a=1
-... except: a=2
->>> a
-2
->>> a=0; b=0
->>> try:
-...   try: raise "foo"
-...   except "bar": a=1
-...   else: b=1
-... except: a=2
->>> a, b
-(2, 0)
-
-### exec statement in current context
->>> a=1
->>> exec 'b=a'
->>> b
-1
-
-### exec statement with new global context
->>> a=1
->>> g={'a': 2}
->>> exec 'b=a' in g
->>> a, g['b']
-(1, 2)
-
-### exec statement with new global and local context
->>> a=1
->>> g={}; l={}
->>> exec 'a=1; global b; b=2' in g, l
->>> g['b'], l['a']
-(2, 1)
\ No newline at end of file
+### simple if True
+>>> a = ''
+>>> if 1: a = 'ok'
+>>> a
+'ok'
+
+### normal if True
+>>> a = ''
+>>> if 1:
+...   a = '..'
+...   a = 'ok'
+>>> a
+'ok'
+
+### short if True
+>>> a = ''; b = ''
+>>> if 1: a = 'ok'; b = 'ok'
+>>> a, b
+('ok', 'ok')
+
+### if True with simple else 
+>>> a = ''
+>>> if 1:
+...   a = 'ok'
+... else: a = 'not ok'
+>>> a
+'ok'
+
+### if True with normal else
+>>> a = ''
+>>> if 1:
+...   a = 'ok'
+... else:
+...   a = '..'
+...   a = 'not ok'
+>>> a
+'ok'
+
+### if False without else
+>>> a = ''
+>>> if 0: a = 'not ok'
+>>> a
+''
+
+### if False with simple else
+>>> a = ''
+>>> if 0: a = 'not ok'
+... else: a = 'ok'
+>>> a
+'ok'
+
+### if False with normal else
+>>> a = ''
+>>> if 0: a = 'not ok'
+... else:
+...   a = '..' 
+...   a = 'ok'
+>>> a
+'ok'
+
+### if False with short else
+>>> a = ''; b = ''
+>>> if 0: a = 'not ok'; b = 'not ok'
+>>> else: a = 'ok'; b = 'ok'
+>>> a, b
+('ok', 'ok')
+
+
+### simple if/elif combination
+>>> a = ''
+>>> if 0: pass
+>>> elif 1: a = 'ok'
+>>> a
+'ok'
+
+### normal if/elif combination
+>>> a = ''
+>>> if 0: pass
+>>> elif 1:
+...   a = '..'
+...   a = 'ok'
+>>> a
+'ok'
+
+### short if/elif combination
+>>> a = ''
+>>> if 0: pass
+>>> elif 1:
+...   a = '..'; a = 'ok'
+>>> a
+'ok'
+
+### if/elif with simple else
+>>> a = ''
+>>> if 0: pass
+... elif 1: a = 'ok'
+... else: a = 'not ok'
+>>> a
+'ok'
+
+### if/elif with normal else
+>>> a = ''
+>>> if 0: pass
+... elif 1: a = 'ok'
+... else:
+...  a = '..'
+...  a = 'not ok'
+>>> a
+'ok'
+
+### if/elif with short else
+>>> a = ''
+>>> if 0: pass
+... elif 1: a = 'ok'
+... else:
+...  a = '..'; a = 'not ok'
+>>> a
+'ok'
+
+### if/elif with succeeding else
+>>> a = ''
+>>> if 0: pass
+... elif 0: pass
+... else: a = 'ok'
+>>> a
+'ok'
+
+### complex if/elif/else
+>>> a = ''
+>>> if 0: pass
+... elif 0: pass
+... elif 0: pass
+... elif 1: a = 'ok'
+... else: pass
+>>> a
+'ok'
+
+### while False
+>>> a = 'ok'
+>>> while 0: a = 'not ok'
+>>> a
+'ok'
+
+### while False with else
+>>> a = 0
+>>> while 0: assert 0
+... else: a = 'ok'
+>>> a
+'ok'
+
+### simple while True
+>>> a = 0
+>>> while a < 3: a = a + 1
+>>> a
+3
+
+### normal while True
+>>> a = 0
+>>> while a < 3:
+...   a = a + 1 
+...   a = a + 1
+>>> a
+4
+
+### while True with simple else
+>>> a = 0
+>>> while a < 3:
+...   a = a + 1
+... else: a = a + 4
+>>> a
+7
+
+### while True with normal else
+>>> a = 0
+>>> while a < 3:
+...   a = a + 1
+... else:
+...   a = a + 2
+...   a = a + 2
+>>> a
+7
+
+### while True with break
+>>> a = 0
+>>> while 1:
+...   break
+...   a = 1
+>>> a
+0
+
+### while True with break and else
+>>> a = 0
+>>> while 1:
+...   break
+...   a = 1
+... else:
+...   a = 2
+>>> a
+0
+
+### while with break and continue
+>>> a = 0
+>>> while a < 5:
+...   a = a + 1
+...   if a == 2: continue
+...   if a == 2: break
+...   if a == 3: break
+... else: a = 99
+>>> a
+3
+
+### while with continue and else
+>>> a = 0
+>>> while a < 2:
+...   if a == 1:
+...     a = 2
+...     continue
+...   a = a + 1
+... else: a = 4
+>>> a
+4
+
+### simple for
+>>> a = 0
+>>> for b in (1, 2, 3): a = a + b
+>>> a, b
+(6, 3)
+
+### simple for, implicit tuple 
+>>> a = 0
+>>> for b in 1, 2, 3: a = a + b
+>>> a, b
+(6, 3)
+
+### normal for
+>>> a = 0
+>>> for b in (1, 2, 3):
+...   a = a + b
+...   a = a + b
+>>> a, b
+(12, 3)
+
+### short for
+>>> a = 0
+>>> for b in (1, 2, 3): a = a + b; a = a + b
+>>> a, b
+(12, 3)
+
+### for without elements
+>>> a = 0
+>>> for b in (): a = 1
+>>> a
+0
+
+### for without elements but with else
+>>> a = 0
+>>> for b in (): a = 1
+>>> else: a = 4
+>>> a
+4
+
+### for with simple else
+>>> a = 0
+>>> for b in (): a = 1
+... else: a = 2
+>>> a
+2
+
+### for with normal else
+>>> a = 0
+>>> for b in 99,: a = 1
+... else:
+...   a = 2
+...   a = 3
+>>> a, b
+(3, 99)
+
+### for with break
+>>> for a in 1, 2, 3:
+...   if a == 2: break
+>>> a
+2
+
+### for with break and else
+>>> for a in 1, 2, 3:
+...   if a == 2: break
+... else: a = 4
+>>> a
+2
+
+### for with continue
+>>> b = 0
+>>> for a in 1, 2:
+...   if a == 2: continue
+...   b = a
+>>> b
+1
+
+### for with continue and else
+>>> b = 0
+>>> for a in 1, 2:
+...   if a == 2: continue
+...   b = a
+... else: b = 3
+>>> b
+3
+
+### for over range
+>>> b = 0
+>>> for a in range(1, 2000, 2): b = b + a
+>>> a, b
+(1999, 1000000)
+>>> for a in range(5, 0, -1):
+...   if a == 3: break
+... else: a = 0
+>>> a
+3
+>>> b = []
+>>> for a in range(4):
+...   if a == 1: continue
+...   b.append(a)
+... else: b.append(9)
+>>> b
+[0, 2, 3, 9]
+>>> a = 7
+>>> for a in range(0): pass
+>>> a
+7
+>>> r = range
+>>> for a in r(2): pass
+>>> a
+1
+
+### for over lists, tuples, strings and dictionaries
+>>> b = [1, 2]
+>>> for a in b:
+...   if a < 4: b.append(a + 2)
+>>> b
+[1, 2, 3, 4, 5]
+>>> for a in (1, 2), (3, 4): b = a
+>>> b
+(3, 4)
+>>> b = ''
+>>> for a in 'abc': b = a + b
+... else: b = b + '!'
+>>> a, b
+('c', 'cba!')
+>>> for a in '': b = 1
+>>> b
+'cba!'
+>>> b = 0
+>>> for k, v in {1: 10, 2: 20, 3: 30}:
+...   if k == 2: continue
+...   b = b + k * v
+>>> b
+100
+>>> for a in {4: 5}: pass
+>>> a
+(4, 5)
+>>> for a, b in {1: 2}:
+...   break
+... else: a = 0
+>>> a, b
+(1, 2)
+
+### try/finaly
+>>> a=0
+>>> try:
+...   try:
+...     assert 0
+...   finally:
+...     a=1
+... except: pass
+>>> a
+1
+
+### return, break and continue inside try statements
+>>> def f(n):
+...   r = []
+...   for i in range(n):
+...     try:
+...       if i == 1: continue
+...       if i == 3: break
+...       r.append(i)
+...     finally:
+...       r.append(-i)
+...   return r
+>>> f(5)
+[0, 0, -1, 2, -2, -3]
+>>> def f():
+...   try:
+...     return 1
+...   finally:
+...     a = 2
+>>> f()
+1
+>>> def f():
+...   try:
+...     return 1
+...   finally:
+...     return 2
+>>> f()
+2
+>>> def f():
+...   while 1:
+...     try:
+...       assert 0
+...     finally:
+...       break
+...   return 3
+>>> f()
+3
+>>> def f():
+...   try:
+...     assert 0
+...   except:
+...     return 4
+...   else:
+...     return 5
+>>> f()
+4
+
+### try/except
+>>> a=0
+>>> try: assert 1
+... except: a=0
+>>> a
+0
+>>> try: assert 0
+... except: a=1
+>>> a
+1
+
+### try/except/else
+>>> a=0
+>>> try: assert 1
+... except: a=1
+... else: a=2
+>>> a
+2
+>>> try: assert 0
+... except: a=1
+... else: a=2
+>>> a
+1
+
+### raise stops execution
+>>> a=0
+>>> try:
+...   raise "foo"; a=1
+... except:
+...   a=2
+>>> a
+2
+
+### except with exception type
+>>> a=0
+>>> try:
+...   raise "foo"; a=1
+... except "foo":
+...   a=2
+>>> a
+2
+>>> try:
+...   raise "foo", 3
+... except "foo", e:
+...   a=e
+>>> a
+3
+
+### except with wrong exception type
+>>> a=0
+>>> try:
+...   try: raise "foo"
+...   except "bar": a=1
+... except: a=2
+>>> a
+2
+>>> a=0; b=0
+>>> try:
+...   try: raise "foo"
+...   except "bar": a=1
+...   else: b=1
+... except: a=2
+>>> a, b
+(2, 0)
+
+### exec statement in current context
+>>> a=1
+>>> exec 'b=a'
+>>> b
+1
+
+### exec statement with new global context
+>>> a=1
+>>> g={'a': 2}
+>>> exec 'b=a' in g
+>>> a, g['b']
+(1, 2)
+
+### exec statement with new global and local context
+>>> a=1
+>>> g={}; l={}
+>>> exec 'a=1; global b; b=2' in g, l
+>>> g['b'], l['a']
+(2, 1)
+### constant conditions
+>>> if 0:
+...   a = 1
+... else:
+...   a = 2
+>>> a
+2
+>>> while 0: a = 3
+... else: a = a * 60 * 60
+>>> a
+7200
+>>> def f(x):
+...   if 1: return x * 2
+>>> f(21)
+42